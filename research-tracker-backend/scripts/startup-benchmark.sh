@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Time to first request and resident memory of the application in each deployment mode:
+#   jvm          plain JVM startup
+#   aot          Spring AOT bean definitions (-Dspring.aot.enabled=true)
+#   aot-cds      AOT plus the AppCDS archive recorded during the build (-Dcds.skip=false)
+#   native       GraalVM native image, when target/research-tracker-backend exists
+#
+# Build first with `mvn -Pprod package` (and optionally `mvn -Pnative native:compile`). The
+# application connects to DB_URL / DB_USERNAME / DB_PASSWORD as usual. Extra jars (e.g. a different
+# JDBC driver) can be appended to the class path with BENCH_EXTRA_CLASSPATH.
+#
+# Usage: scripts/startup-benchmark.sh [runs-per-mode]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=target/research-tracker-backend-1.0-SNAPSHOT.jar
+CDS_ARCHIVE=target/app-cds.jsa
+NATIVE=target/research-tracker-backend
+MAIN=lk.ijse.cmjd.researchtracker.ResearchTrackerApplication
+CLASSPATH_ARG="$JAR${BENCH_EXTRA_CLASSPATH:+:$BENCH_EXTRA_CLASSPATH}"
+URL="http://localhost:$PORT/actuator/health"
+
+if [[ ! -f $JAR ]]; then
+    echo "$JAR not found; build it with: mvn -Pprod package" >&2
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts one instance, waits for its first HTTP response and prints "<ms> <rss MB>"
+measure() {
+    local start pid elapsed rss
+    start=$(now_ms)
+    "$@" --server.port="$PORT" >/dev/null 2>&1 &
+    pid=$!
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' "$URL" || true) != 000 ]]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "instance exited before serving a request: $*" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(( $(ps -o rss= -p "$pid") / 1024 ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+run_mode() {
+    local name=$1
+    shift
+    local total_ms=0 total_rss=0 result ms rss
+    for ((i = 1; i <= RUNS; i++)); do
+        result=$(measure "$@")
+        read -r ms rss <<<"$result"
+        total_ms=$((total_ms + ms))
+        total_rss=$((total_rss + rss))
+    done
+    printf '%-10s %12d %10d\n' "$name" $((total_ms / RUNS)) $((total_rss / RUNS))
+}
+
+printf '%-10s %12s %10s   (mean of %d runs)\n' mode first-req-ms rss-mb "$RUNS"
+run_mode jvm "$JAVA" -cp "$CLASSPATH_ARG" "$MAIN"
+run_mode aot "$JAVA" -Dspring.aot.enabled=true -cp "$CLASSPATH_ARG" "$MAIN"
+if [[ -f $CDS_ARCHIVE ]]; then
+    run_mode aot-cds "$JAVA" -XX:SharedArchiveFile="$CDS_ARCHIVE" -Dspring.aot.enabled=true -cp "$CLASSPATH_ARG" "$MAIN"
+else
+    echo "aot-cds    skipped: $CDS_ARCHIVE not found (built by mvn -Pprod package -Dcds.skip=false)"
+fi
+if [[ -x $NATIVE ]]; then
+    run_mode native "$NATIVE"
+else
+    echo "native     skipped: $NATIVE not found (built by mvn -Pnative native:compile)"
+fi
@@ -1,9 +1,12 @@
 package lk.ijse.cmjd.researchtracker;
 
+import lk.ijse.cmjd.researchtracker.tenant.TenantScopedRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
+@EnableJpaRepositories(repositoryBaseClass = TenantScopedRepository.class)
 public class ResearchTrackerApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(ResearchTrackerApplication.class, args);
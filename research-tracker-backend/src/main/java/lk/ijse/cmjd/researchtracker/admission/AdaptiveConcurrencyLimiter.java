@@ -0,0 +1,92 @@
+package lk.ijse.cmjd.researchtracker.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to observed latency (AIMD). Each completed call is compared against
+ * the lowest latency seen recently, which stands in for the no-load latency: a call slower than
+ * {@code latencyTolerance} times that shrinks the limit by 10%, while a fast call made with the limit
+ * at least half used raises it by one. Callers over the limit wait up to a timeout for a slot.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.9;
+    // Lets the baseline creep up by 0.1% per call, so it follows a lasting shift in the workload
+    private static final double BASELINE_DRIFT = 1.001;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private double baselineNanos;
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, double latencyTolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyTolerance = latencyTolerance;
+        this.limit = this.maxLimit;
+    }
+
+    /**
+     * Takes a slot, waiting up to the timeout for one to free up. Returns false if none did.
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a slot taken by {@link #tryAcquire} and adjusts the limit by how long the call took.
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean busy = inFlight * 2 >= limit;
+            inFlight--;
+            baselineNanos = baselineNanos == 0 ? latencyNanos : Math.min(latencyNanos, baselineNanos * BASELINE_DRIFT);
+            if (latencyNanos > baselineNanos * latencyTolerance) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+            } else if (busy) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package lk.ijse.cmjd.researchtracker.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the API. Each {@link EndpointClass} gets its own concurrency limit,
+ * adaptive unless {@code admission.<key>.adaptive} is false, so a download flood or a login burst only
+ * queues behind itself. A request that cannot get a
+ * slot within its class's queue timeout is turned away at once with 503 and Retry-After, before it
+ * costs a token check, a user lookup or a database connection.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(MeterRegistry meterRegistry, Environment environment) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "admission." + endpointClass.key() + ".";
+            int maxConcurrency = environment.getProperty(prefix + "max-concurrency", Integer.class, endpointClass.defaultMaxConcurrency());
+            // A limit with its floor at the ceiling never moves
+            int minConcurrency = environment.getProperty(prefix + "adaptive", Boolean.class, endpointClass.defaultAdaptive())
+                    ? environment.getProperty(prefix + "min-concurrency", Integer.class, endpointClass.defaultMinConcurrency())
+                    : maxConcurrency;
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(minConcurrency, maxConcurrency,
+                    environment.getProperty(prefix + "latency-tolerance", Double.class, endpointClass.defaultLatencyTolerance()));
+            Duration queueTimeout = environment.getProperty(prefix + "queue-timeout", Duration.class, endpointClass.defaultQueueTimeout());
+
+            Gauge.builder("admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("class", endpointClass.key())
+                    .description("Current adaptive concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder("admission.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("class", endpointClass.key())
+                    .register(meterRegistry);
+            Counter rejected = Counter.builder("admission.rejected")
+                    .tag("class", endpointClass.key())
+                    .description("Requests turned away with 503 because their class was at its limit")
+                    .register(meterRegistry);
+            bulkheads.put(endpointClass, new Bulkhead(limiter, queueTimeout.toNanos(), rejected));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(endpointClass);
+        boolean admitted;
+        try {
+            admitted = bulkhead.limiter.tryAcquire(bulkhead.queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            bulkhead.rejected.increment();
+            // A bare status rather than sendError: shedding load must not cost an error page render
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private record Bulkhead(AdaptiveConcurrencyLimiter limiter, long queueTimeoutNanos, Counter rejected) {
+    }
+}
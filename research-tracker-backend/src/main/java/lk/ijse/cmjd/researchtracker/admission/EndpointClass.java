@@ -0,0 +1,94 @@
+package lk.ijse.cmjd.researchtracker.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Kinds of API traffic that get their own concurrency bulkhead, so a flood of one cannot take the
+ * threads and connections the others need. Each has defaults for its
+ * {@code admission.<key>.*} properties.
+ */
+public enum EndpointClass {
+
+    // Document uploads and downloads: large bodies held for a long time. Their latency follows the file
+    // size rather than the load, so the limit is fixed, below the prod pool of 10 connections.
+    TRANSFER("transfer", false, 2, 8, Duration.ofMillis(100), 5.0),
+    // Sign-up and sign-in: BCrypt hashing, CPU bound
+    AUTH("auth", true, 1, 8, Duration.ofMillis(500), 3.0),
+    // Everything else under /api: short reads and writes
+    CRUD("crud", true, 10, 100, Duration.ofMillis(200), 3.0);
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    private static final List<Route> TRANSFER_ROUTES = List.of(
+            new Route(HttpMethod.GET, "/api/documents/*/download"),
+            new Route(HttpMethod.GET, "/api/documents/*/preview/thumbnail"),
+            new Route(HttpMethod.POST, "/api/projects/*/documents"),
+            new Route(HttpMethod.POST, "/api/documents/*/versions"),
+            new Route(HttpMethod.PUT, "/api/documents/uploads/*/chunks/*"),
+            new Route(HttpMethod.POST, "/api/documents/uploads/*/complete"));
+
+    private final String key;
+    private final boolean defaultAdaptive;
+    private final int defaultMinConcurrency;
+    private final int defaultMaxConcurrency;
+    private final Duration defaultQueueTimeout;
+    private final double defaultLatencyTolerance;
+
+    EndpointClass(String key, boolean defaultAdaptive, int defaultMinConcurrency, int defaultMaxConcurrency,
+                  Duration defaultQueueTimeout, double defaultLatencyTolerance) {
+        this.key = key;
+        this.defaultAdaptive = defaultAdaptive;
+        this.defaultMinConcurrency = defaultMinConcurrency;
+        this.defaultMaxConcurrency = defaultMaxConcurrency;
+        this.defaultQueueTimeout = defaultQueueTimeout;
+        this.defaultLatencyTolerance = defaultLatencyTolerance;
+    }
+
+    /**
+     * The class a request belongs to, or null for requests outside the API (actuator, errors).
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        for (Route route : TRANSFER_ROUTES) {
+            if (route.method.matches(request.getMethod()) && PATHS.match(route.pattern, path)) {
+                return TRANSFER;
+            }
+        }
+        return path.startsWith("/api/") ? CRUD : null;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public boolean defaultAdaptive() {
+        return defaultAdaptive;
+    }
+
+    public int defaultMinConcurrency() {
+        return defaultMinConcurrency;
+    }
+
+    public int defaultMaxConcurrency() {
+        return defaultMaxConcurrency;
+    }
+
+    public Duration defaultQueueTimeout() {
+        return defaultQueueTimeout;
+    }
+
+    public double defaultLatencyTolerance() {
+        return defaultLatencyTolerance;
+    }
+
+    private record Route(HttpMethod method, String pattern) {
+    }
+}
@@ -0,0 +1,5 @@
+package lk.ijse.cmjd.researchtracker.audit;
+
+public enum AuditAction {
+    CREATE, UPDATE, DELETE
+}
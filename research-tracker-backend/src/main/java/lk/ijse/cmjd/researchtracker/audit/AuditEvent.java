@@ -0,0 +1,23 @@
+package lk.ijse.cmjd.researchtracker.audit;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One audited change: who did what to which entity, and which of its fields changed. The id is
+ * assigned when the event is written and is 0 while it is still queued.
+ */
+@JsonFilter(SparseFields.FILTER)
+public record AuditEvent(long id,
+                         @JsonIgnore String tenantId,
+                         LocalDateTime occurredAt,
+                         String actor,
+                         String entityType,
+                         String entityId,
+                         AuditAction action,
+                         List<String> changedFields) {
+}
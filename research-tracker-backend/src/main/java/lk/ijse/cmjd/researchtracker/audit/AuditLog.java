@@ -0,0 +1,140 @@
+package lk.ijse.cmjd.researchtracker.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lk.ijse.cmjd.researchtracker.common.KeysetCursor;
+import lk.ijse.cmjd.researchtracker.tenant.Tenants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Audit trail of changes made through the services. Recording an event only captures who and what on
+ * the request thread and, once the surrounding transaction commits, puts it on a bounded lock-free
+ * queue; a scheduled flush writes the queue out in JDBC batches. Writers never wait for the audit
+ * insert. When the queue is full the event is dropped and counted rather than blocking the writer.
+ */
+@Service
+public class AuditLog {
+
+    static final String SYSTEM_ACTOR = "system";
+
+    private final AuditRepository repository;
+    private final int capacity;
+    private final int batchSize;
+    private final ConcurrentLinkedQueue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    public AuditLog(AuditRepository repository,
+                    MeterRegistry meterRegistry,
+                    @Value("${audit.queue-capacity:10000}") int capacity,
+                    @Value("${audit.batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        Gauge.builder("audit.backlog", queued, AtomicInteger::get)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.written").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.dropped")
+                .description("Audit events dropped because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.failed")
+                .description("Audit events lost because their batch insert failed")
+                .register(meterRegistry);
+    }
+
+    public void record(String entityType, String entityId, AuditAction action) {
+        record(entityType, entityId, action, List.of());
+    }
+
+    /**
+     * Records a change by the signed-in user. Inside a transaction the event is only queued if it
+     * commits, so rolled-back changes never show up in the trail.
+     */
+    public void record(String entityType, String entityId, AuditAction action, List<String> changedFields) {
+        AuditEvent event = new AuditEvent(0, Tenants.current(), LocalDateTime.now(), currentActor(),
+                entityType, entityId, action, List.copyOf(changedFields));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            droppedCounter.increment();
+            return;
+        }
+        queue.offer(event);
+    }
+
+    @Scheduled(fixedDelayString = "${audit.flush-interval:PT1S}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        do {
+            batch.clear();
+            AuditEvent event;
+            while (batch.size() < batchSize && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queued.addAndGet(-batch.size());
+            try {
+                repository.insertAll(batch);
+                writtenCounter.increment(batch.size());
+            } catch (DataAccessException e) {
+                failedCounter.increment(batch.size());
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * A page of the current tenant's audit trail, newest first. The cursor is the {@code next} value
+     * of the previous page.
+     */
+    @Transactional(readOnly = true)
+    public AuditPage getEvents(String entityType, String entityId, LocalDateTime from, LocalDateTime to,
+                               String cursor, int limit) {
+        List<AuditEvent> events = repository.find(Tenants.current(), entityType, entityId, from, to,
+                KeysetCursor.parse(cursor), limit + 1);
+        if (events.size() <= limit) {
+            return new AuditPage(events, null);
+        }
+        events = events.subList(0, limit);
+        AuditEvent last = events.get(limit - 1);
+        return new AuditPage(events, new KeysetCursor(last.occurredAt(), last.id()).toString());
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : SYSTEM_ACTOR;
+    }
+}
@@ -0,0 +1,10 @@
+package lk.ijse.cmjd.researchtracker.audit;
+
+import java.util.List;
+
+/**
+ * A page of audit events, newest first. Pass {@code next} back as the cursor to get the following
+ * page; it is null on the last page.
+ */
+public record AuditPage(List<AuditEvent> events, String next) {
+}
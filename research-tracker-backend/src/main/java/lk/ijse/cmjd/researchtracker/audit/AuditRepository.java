@@ -0,0 +1,103 @@
+package lk.ijse.cmjd.researchtracker.audit;
+
+import lk.ijse.cmjd.researchtracker.common.KeysetCursor;
+import lk.ijse.cmjd.researchtracker.tenant.Tenants;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plain JDBC access to audit_log. Events are append-only and written in batches, which a JPA
+ * repository would turn back into one insert per row.
+ */
+@Repository
+public class AuditRepository {
+
+    private static final String INSERT = """
+            insert into audit_log (tenant_id, occurred_at, actor, entity_type, entity_id, action, changed_fields)
+            values (:tenantId, :occurredAt, :actor, :entityType, :entityId, :action, :changedFields)""";
+
+    private static final RowMapper<AuditEvent> ROW_MAPPER = (rs, rowNum) -> new AuditEvent(
+            rs.getLong("id"),
+            rs.getString("tenant_id"),
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            rs.getString("actor"),
+            rs.getString("entity_type"),
+            rs.getString("entity_id"),
+            AuditAction.valueOf(rs.getString("action")),
+            splitFields(rs.getString("changed_fields")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AuditRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<AuditEvent> events) {
+        SqlParameterSource[] batch = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("tenantId", event.tenantId())
+                        .addValue("occurredAt", Timestamp.valueOf(event.occurredAt()))
+                        .addValue("actor", event.actor())
+                        .addValue("entityType", event.entityType())
+                        .addValue("entityId", event.entityId())
+                        .addValue("action", event.action().name())
+                        .addValue("changedFields", joinFields(event.changedFields())))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+
+    /**
+     * Events of the given tenant, newest first, optionally narrowed to one entity type or entity and
+     * to a time range. Pages are keyed on (occurred_at, id) of the last event returned, so every page
+     * is an index range scan no matter how deep into the log it is.
+     */
+    public List<AuditEvent> find(String tenantId, String entityType, String entityId,
+                                 LocalDateTime from, LocalDateTime to,
+                                 KeysetCursor before, int limit) {
+        StringBuilder sql = new StringBuilder("select * from audit_log where 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (!Tenants.ROOT.equals(tenantId)) {
+            sql.append(" and tenant_id = :tenantId");
+            params.addValue("tenantId", tenantId);
+        }
+        if (entityType != null) {
+            sql.append(" and entity_type = :entityType");
+            params.addValue("entityType", entityType);
+        }
+        if (entityId != null) {
+            sql.append(" and entity_id = :entityId");
+            params.addValue("entityId", entityId);
+        }
+        if (from != null) {
+            sql.append(" and occurred_at >= :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" and occurred_at < :to");
+            params.addValue("to", Timestamp.valueOf(to));
+        }
+        if (before != null) {
+            sql.append(" and (occurred_at < :beforeTime or (occurred_at = :beforeTime and id < :beforeId))");
+            params.addValue("beforeTime", Timestamp.valueOf(before.time()));
+            params.addValue("beforeId", before.id());
+        }
+        sql.append(" order by occurred_at desc, id desc limit :limit");
+        return jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+    }
+
+    private static String joinFields(List<String> fields) {
+        return fields == null || fields.isEmpty() ? null : String.join(",", fields);
+    }
+
+    private static List<String> splitFields(String fields) {
+        return fields == null || fields.isEmpty() ? List.of() : Arrays.asList(fields.split(","));
+    }
+}
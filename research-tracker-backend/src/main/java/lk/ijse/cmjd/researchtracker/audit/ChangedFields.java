@@ -0,0 +1,25 @@
+package lk.ijse.cmjd.researchtracker.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collects the names of the fields an update actually changes, compared before the new values are
+ * applied. Only names are audited, never values.
+ */
+public class ChangedFields {
+
+    private final List<String> names = new ArrayList<>();
+
+    public ChangedFields compare(String name, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            names.add(name);
+        }
+        return this;
+    }
+
+    public List<String> names() {
+        return names;
+    }
+}
@@ -23,6 +23,7 @@ public class AuthenticationResponse {
         private String username;
         private String fullName;
         private String role;
+        private String institution;
 
         public static UserDto fromUser(User user) {
             return UserDto.builder()
@@ -30,6 +31,7 @@ public class AuthenticationResponse {
                     .username(user.getUsername())
                     .fullName(user.getFullName())
                     .role(user.getRole().name())
+                    .institution(user.getTenantId())
                     .build();
         }
     }
@@ -1,37 +1,74 @@
 package lk.ijse.cmjd.researchtracker.auth;
 
 import lk.ijse.cmjd.researchtracker.common.JwtService;
+import lk.ijse.cmjd.researchtracker.tenant.TenantInvite;
+import lk.ijse.cmjd.researchtracker.tenant.TenantService;
+import lk.ijse.cmjd.researchtracker.tenant.Tenants;
 import lk.ijse.cmjd.researchtracker.user.User;
+import lk.ijse.cmjd.researchtracker.user.UserCache;
 import lk.ijse.cmjd.researchtracker.user.UserRepository;
 import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class AuthenticationService {
 
     private final UserRepository repository;
+    private final UserCache userCache;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TenantService tenantService;
+    private final boolean openRegistration;
 
-    public AuthenticationService(UserRepository repository, PasswordEncoder passwordEncoder, JwtService jwtService, AuthenticationManager authenticationManager) {
+    public AuthenticationService(UserRepository repository, UserCache userCache, PasswordEncoder passwordEncoder, JwtService jwtService,
+                                 AuthenticationManager authenticationManager, TenantService tenantService,
+                                 @Value("${tenants.open-registration:true}") boolean openRegistration) {
         this.repository = repository;
+        this.userCache = userCache;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.tenantService = tenantService;
+        this.openRegistration = openRegistration;
     }
 
+    /**
+     * Signs a user up into the tenant of their invite, with the invite's role. Without an invite the user
+     * joins the default tenant as a MEMBER, if open registration is on; the institution a client names
+     * is never trusted to pick a tenant.
+     */
+    @Transactional
     public AuthenticationResponse register(RegisterRequest request) {
+        String tenantId = Tenants.DEFAULT;
+        UserRole role = UserRole.MEMBER;  // Default role
+        if (request.getInviteCode() != null && !request.getInviteCode().isBlank()) {
+            TenantInvite invite = tenantService.redeem(request.getInviteCode(), request.getUsername())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Invite is invalid, used or expired"));
+            tenantId = invite.getTenantId();
+            role = invite.getRole();
+        } else if (request.getInstitution() != null && !request.getInstitution().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Joining an institution requires an invite from its administrator");
+        } else if (!openRegistration) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Sign-up requires an invite");
+        }
+
         var user = User.builder()
                 .username(request.getUsername())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .fullName(request.getFullName())
-                .role(UserRole.MEMBER)  // Default role
+                .role(role)
+                .tenantId(tenantId)
                 .build();
         repository.save(user);
+        userCache.put(user);
         var jwtToken = jwtService.generateToken(user);
         return AuthenticationResponse.builder()
                 .token(jwtToken)
@@ -13,4 +13,7 @@ public class RegisterRequest {
     private String username;
     private String password;
     private String fullName;
+    // Only accepted together with an invite; the invite decides the tenant
+    private String institution;
+    private String inviteCode;
 }
\ No newline at end of file
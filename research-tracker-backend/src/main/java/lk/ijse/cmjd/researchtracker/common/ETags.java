@@ -0,0 +1,41 @@
+package lk.ijse.cmjd.researchtracker.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Entity tags for versioned entities. The tag is the entity's {@code @Version} value, so a client
+ * sends back the tag it last saw in {@code If-Match} and a stale edit is refused with 412.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header asks for, or null when the header is absent or
+     * {@code *}. A tag that cannot be one of ours never matches and fails the precondition.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Falls through to the failed precondition below
+            }
+        }
+        throw preconditionFailed();
+    }
+
+    public static ResponseStatusException preconditionFailed() {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current version");
+    }
+}
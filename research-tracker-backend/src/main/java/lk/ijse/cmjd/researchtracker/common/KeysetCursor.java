@@ -0,0 +1,36 @@
+package lk.ijse.cmjd.researchtracker.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in a feed ordered newest first by (time, id). Clients get it as the {@code next} value of
+ * a page, in the form {@code <time>_<id>}, and send it back unchanged to get the following page.
+ */
+public record KeysetCursor(LocalDateTime time, long id) {
+
+    /**
+     * Parses a cursor sent by a client, or returns null when there is none. A malformed cursor is a
+     * 400, not an empty page.
+     */
+    public static KeysetCursor parse(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf('_');
+        try {
+            return new KeysetCursor(LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0))),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return time + "_" + id;
+    }
+}
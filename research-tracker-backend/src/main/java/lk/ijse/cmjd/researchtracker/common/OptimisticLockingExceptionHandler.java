@@ -0,0 +1,20 @@
+package lk.ijse.cmjd.researchtracker.common;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * A concurrent update committed between our read and our write of a versioned entity; the client's
+ * copy is stale just as if its If-Match had not matched.
+ */
+@RestControllerAdvice
+public class OptimisticLockingExceptionHandler {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public void handleOptimisticLockingFailure() {
+    }
+}
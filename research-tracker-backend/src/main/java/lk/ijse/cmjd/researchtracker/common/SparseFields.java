@@ -0,0 +1,48 @@
+package lk.ijse.cmjd.researchtracker.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson filter behind the {@code fields=} request parameter. Response types opt in with
+ * {@code @JsonFilter(SparseFields.FILTER)}; only the top-level objects of a response (the body, or
+ * the elements of a list body) are trimmed, nested objects such as a project's PI are written whole.
+ */
+public class SparseFields extends SimpleBeanPropertyFilter {
+
+    public static final String FILTER = "fields";
+
+    private final Set<String> fields;
+
+    public SparseFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static Set<String> parse(String fields) {
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+        if (fields.contains(writer.getName()) || !isTopLevel(gen.getOutputContext())) {
+            writer.serializeAsField(pojo, gen, provider);
+        } else if (!gen.canOmitFields()) {
+            writer.serializeAsOmittedField(pojo, gen, provider);
+        }
+    }
+
+    private static boolean isTopLevel(JsonStreamContext objectContext) {
+        JsonStreamContext parent = objectContext.getParent();
+        return parent == null || parent.inRoot() || (parent.inArray() && parent.getParent() != null && parent.getParent().inRoot());
+    }
+}
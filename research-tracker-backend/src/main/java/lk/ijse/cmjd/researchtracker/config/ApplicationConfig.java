@@ -11,19 +11,24 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Configuration
 public class ApplicationConfig {
 
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public ApplicationConfig(UserRepository userRepository) {
+    public ApplicationConfig(UserRepository userRepository, TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Bean
     public UserDetailsService userDetailsService() {
         return username -> userRepository.findByUsername(username)
+                // A read replica may not have caught up with a registration yet; confirm a miss on the primary
+                .or(() -> transactionTemplate.execute(status -> userRepository.findByUsername(username)))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
@@ -0,0 +1,105 @@
+package lk.ijse.cmjd.researchtracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ * After a user's own write commits, that user's reads stay on the primary for a short window so they
+ * never see the replica lagging behind their change.
+ * <p>
+ * The decision is made when a connection is first used, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; by then the transaction's
+ * read-only flag is known.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private final long readYourWritesNanos;
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter readYourWritesCounter;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.primaryCounter = Counter.builder("datasource.routing.connections")
+                .tag("target", PRIMARY)
+                .description("Connections handed out by the read/write router")
+                .register(meterRegistry);
+        this.replicaCounter = Counter.builder("datasource.routing.connections")
+                .tag("target", REPLICA)
+                .description("Connections handed out by the read/write router")
+                .register(meterRegistry);
+        this.readYourWritesCounter = Counter.builder("datasource.routing.read-your-writes")
+                .description("Read-only transactions kept on the primary after the user's own write")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite(user);
+            primaryCounter.increment();
+            return PRIMARY;
+        }
+        if (user != null && isRecentWriter(user)) {
+            readYourWritesCounter.increment();
+            primaryCounter.increment();
+            return PRIMARY;
+        }
+        replicaCounter.increment();
+        return REPLICA;
+    }
+
+    private void trackWrite(String user) {
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.nanoTime();
+                recentWriters.put(user, now + readYourWritesNanos);
+                if (recentWriters.size() > PRUNE_THRESHOLD) {
+                    recentWriters.values().removeIf(until -> now - until >= 0);
+                }
+            }
+        });
+    }
+
+    private boolean isRecentWriter(String user) {
+        Long until = recentWriters.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        recentWriters.remove(user, until);
+        return false;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -1,6 +1,8 @@
 package lk.ijse.cmjd.researchtracker.config;
 
+import lk.ijse.cmjd.researchtracker.admission.AdmissionControlFilter;
 import lk.ijse.cmjd.researchtracker.auth.JwtAuthenticationFilter;
+import lk.ijse.cmjd.researchtracker.tenant.TenantRateLimitFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -22,10 +24,15 @@ public class SecurityConfig {
 
     private final AuthenticationProvider authenticationProvider;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final TenantRateLimitFilter tenantRateLimitFilter;
+    private final AdmissionControlFilter admissionControlFilter;
 
-    public SecurityConfig(AuthenticationProvider authenticationProvider, JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(AuthenticationProvider authenticationProvider, JwtAuthenticationFilter jwtAuthenticationFilter,
+                          TenantRateLimitFilter tenantRateLimitFilter, AdmissionControlFilter admissionControlFilter) {
         this.authenticationProvider = authenticationProvider;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.tenantRateLimitFilter = tenantRateLimitFilter;
+        this.admissionControlFilter = admissionControlFilter;
     }
 
     @Bean
@@ -47,6 +54,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(admissionControlFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(tenantRateLimitFilter, JwtAuthenticationFilter.class)
                 .exceptionHandling(exception -> exception
                         .authenticationEntryPoint((request, response, authException) -> {
                             response.setHeader("Access-Control-Allow-Origin", "http://localhost:3000");
@@ -0,0 +1,23 @@
+package lk.ijse.cmjd.researchtracker.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shuts the application down as soon as it is ready when started with {@code -Dapp.training-run=true}.
+ * The prod build uses such a run to record every class loaded during startup into the class data
+ * sharing archive. Checked at runtime rather than with a condition, so it also works in AOT mode
+ * where conditions are fixed at build time.
+ */
+@Component
+class TrainingRunExit implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (event.getApplicationContext().getEnvironment().getProperty("app.training-run", Boolean.class, false)) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
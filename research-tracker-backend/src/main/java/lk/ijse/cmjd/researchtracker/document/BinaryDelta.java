@@ -0,0 +1,167 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Block-matching binary delta. The base is indexed in fixed-size blocks and the target is scanned
+ * with a rolling hash; matches become COPY ops against the base and everything else is INSERTed.
+ *
+ * <p>Encoding: varint target length, then a sequence of {@code COPY varint(offset) varint(length)}
+ * or {@code INSERT varint(length) bytes} ops.
+ */
+final class BinaryDelta {
+
+    private static final int BLOCK_SIZE = 32;
+    private static final int PRIME = 31;
+    private static final byte COPY = 1;
+    private static final byte INSERT = 2;
+
+    private BinaryDelta() {
+    }
+
+    static byte[] encode(byte[] base, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarint(out, target.length);
+
+        if (base.length < BLOCK_SIZE || target.length < BLOCK_SIZE) {
+            writeInsert(out, target, 0, target.length);
+            return out.toByteArray();
+        }
+
+        Map<Integer, Integer> blocks = new HashMap<>(base.length / BLOCK_SIZE * 2);
+        for (int i = 0; i + BLOCK_SIZE <= base.length; i += BLOCK_SIZE) {
+            blocks.putIfAbsent(hash(base, i), i);
+        }
+
+        int highPower = 1;
+        for (int i = 1; i < BLOCK_SIZE; i++) {
+            highPower *= PRIME;
+        }
+
+        int pendingStart = 0;
+        int pos = 0;
+        int h = hash(target, 0);
+        while (pos + BLOCK_SIZE <= target.length) {
+            Integer candidate = blocks.get(h);
+            if (candidate != null && regionMatches(base, candidate, target, pos, BLOCK_SIZE)) {
+                int baseStart = candidate;
+                int targetStart = pos;
+                // Grow the match backwards into pending literals, then forwards as far as it goes
+                while (baseStart > 0 && targetStart > pendingStart && base[baseStart - 1] == target[targetStart - 1]) {
+                    baseStart--;
+                    targetStart--;
+                }
+                int end = pos + BLOCK_SIZE;
+                int baseEnd = candidate + BLOCK_SIZE;
+                while (end < target.length && baseEnd < base.length && base[baseEnd] == target[end]) {
+                    end++;
+                    baseEnd++;
+                }
+
+                if (targetStart > pendingStart) {
+                    writeInsert(out, target, pendingStart, targetStart - pendingStart);
+                }
+                out.write(COPY);
+                writeVarint(out, baseStart);
+                writeVarint(out, end - targetStart);
+
+                pendingStart = end;
+                pos = end;
+                if (pos + BLOCK_SIZE <= target.length) {
+                    h = hash(target, pos);
+                }
+                continue;
+            }
+
+            if (pos + BLOCK_SIZE < target.length) {
+                h = (h - (target[pos] & 0xff) * highPower) * PRIME + (target[pos + BLOCK_SIZE] & 0xff);
+            }
+            pos++;
+        }
+
+        if (pendingStart < target.length) {
+            writeInsert(out, target, pendingStart, target.length - pendingStart);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] apply(byte[] base, byte[] delta) {
+        try {
+            return applyOps(base, delta);
+        } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+            // A truncated delta or one with bad lengths runs off one of the arrays
+            throw new IllegalStateException("Corrupt document delta", e);
+        }
+    }
+
+    private static byte[] applyOps(byte[] base, byte[] delta) {
+        int[] cursor = {0};
+        byte[] target = new byte[readVarint(delta, cursor)];
+        int written = 0;
+        while (cursor[0] < delta.length) {
+            byte op = delta[cursor[0]++];
+            if (op == COPY) {
+                int offset = readVarint(delta, cursor);
+                int length = readVarint(delta, cursor);
+                System.arraycopy(base, offset, target, written, length);
+                written += length;
+            } else if (op == INSERT) {
+                int length = readVarint(delta, cursor);
+                System.arraycopy(delta, cursor[0], target, written, length);
+                cursor[0] += length;
+                written += length;
+            } else {
+                throw new IllegalStateException("Corrupt document delta");
+            }
+        }
+        if (written != target.length) {
+            throw new IllegalStateException("Corrupt document delta");
+        }
+        return target;
+    }
+
+    private static int hash(byte[] data, int offset) {
+        int h = 0;
+        for (int i = offset; i < offset + BLOCK_SIZE; i++) {
+            h = h * PRIME + (data[i] & 0xff);
+        }
+        return h;
+    }
+
+    private static boolean regionMatches(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aOffset + i] != b[bOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeInsert(ByteArrayOutputStream out, byte[] data, int offset, int length) {
+        out.write(INSERT);
+        writeVarint(out, length);
+        out.write(data, offset, length);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[cursor[0]++];
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateUploadSessionRequest {
+    private String title;
+    private String description;
+    private String fileName;
+    private String contentType;
+    private Long totalSize;
+    private String sha256;
+}
@@ -1,13 +1,19 @@
 package lk.ijse.cmjd.researchtracker.document;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
 import lk.ijse.cmjd.researchtracker.project.Project;
+import lk.ijse.cmjd.researchtracker.tenant.TenantOwned;
 import lk.ijse.cmjd.researchtracker.user.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 
@@ -17,11 +23,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "documents")
-public class Document {
+@JsonFilter(SparseFields.FILTER)
+public class Document implements TenantOwned {
 
     @Id
     private String id;
 
+    // Institution the row belongs to; Hibernate sets it on insert and filters every query by it
+    @TenantId
+    @JsonIgnore
+    private String tenantId;
+
     @ManyToOne
     @JoinColumn(name = "project_id")
     @JsonIgnore  // Prevents infinite loop
@@ -35,14 +47,50 @@ public class Document {
 
     private String contentType;
 
+    private Long fileSize;
+
+    // Id of the first version; all versions of one logical document share it
+    private String versionGroupId;
+
+    private int versionNumber;
+
+    private boolean superseded;
+
+    // When set, content holds a BinaryDelta against this document's reconstructed content
+    @JsonIgnore
+    private String deltaBaseId;
+
+    @JsonIgnore
+    private int deltaDepth;
+
+    // SHA-256 (hex) of the full content; identical uploads in the same tenant share storage
+    @JsonIgnore
+    private String contentSha256;
+
+    // When set, this document's bytes are those of the referenced document and content is null
+    @JsonIgnore
+    private String contentRefId;
+
     @Lob
     @Basic(fetch = FetchType.LAZY)
     @JsonIgnore
     private byte[] content;
 
-    @ManyToOne
+    // When set, content is null and the stored bytes are this entry of a DocumentArchive pack file
+    @JsonIgnore
+    private String archivePack;
+
+    @JsonIgnore
+    private Long archiveOffset;
+
+    @JsonIgnore
+    private Integer archiveLength;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploaded_by_id")
     @JsonIgnore  // Prevents loop via User
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User uploadedBy;
 
     private LocalDateTime uploadedAt;
@@ -51,5 +99,11 @@ public class Document {
     public void prePersist() {
         id = java.util.UUID.randomUUID().toString();
         uploadedAt = LocalDateTime.now();
+        if (versionGroupId == null) {
+            versionGroupId = id;
+        }
+        if (versionNumber == 0) {
+            versionNumber = 1;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Cold tier for document content: append-only pack files on local disk. Each entry is the content
+ * of one document, deflate-compressed and framed with the document's id, so a pack can be checked
+ * without the database. The database keeps each archived document's pack, offset and length, and
+ * that is the index reads go through. A pack is closed once it reaches documents.archive.max-pack-size
+ * and never written again; pack names are unique, so instances sharing the directory do not collide.
+ * Space held by entries of deleted or restored documents is not reclaimed.
+ */
+@Component
+public class DocumentArchive {
+
+    private static final int ENTRY_MAGIC = 0x44415243;
+    private static final String PACK_PREFIX = "pack-";
+
+    private final Path directory;
+    private final long maxPackBytes;
+    private final Timer restoreTimer;
+    private FileChannel currentPack;
+    private String currentPackName;
+
+    public DocumentArchive(@Value("${documents.archive.directory:document-archive}") String directory,
+                           @Value("${documents.archive.max-pack-size:256MB}") DataSize maxPackSize,
+                           MeterRegistry meterRegistry) {
+        this.directory = Path.of(directory);
+        this.maxPackBytes = maxPackSize.toBytes();
+        // Read from the directory, so it includes what other instances have written
+        Gauge.builder("documents.tier.size", this, DocumentArchive::size)
+                .tag("tier", "archive")
+                .baseUnit("bytes")
+                .description("Size of the document archive's pack files on disk")
+                .register(meterRegistry);
+        this.restoreTimer = Timer.builder("documents.archive.restore")
+                .description("Time to read and decompress a document's content from the archive")
+                .register(meterRegistry);
+    }
+
+    public record Location(String pack, long offset, int length) {
+    }
+
+    /**
+     * Appends a document's stored bytes to the current pack. The entry is only durable once
+     * {@link #sync()} has returned.
+     */
+    public synchronized Location append(String documentId, byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+            deflater.write(content);
+        }
+        byte[] id = documentId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(4 + 2 + id.length + 4 + 4 + compressed.size());
+        entry.putInt(ENTRY_MAGIC)
+                .putShort((short) id.length)
+                .put(id)
+                .putInt(content.length)
+                .putInt(compressed.size())
+                .put(compressed.toByteArray())
+                .flip();
+
+        FileChannel pack = packFor(entry.remaining());
+        long offset = pack.size();
+        int length = entry.remaining();
+        while (entry.hasRemaining()) {
+            pack.write(entry, offset + entry.position());
+        }
+        return new Location(currentPackName, offset, length);
+    }
+
+    public synchronized void sync() throws IOException {
+        if (currentPack != null) {
+            currentPack.force(false);
+        }
+    }
+
+    /**
+     * The stored bytes of an archived document: its full content, or the delta for delta-stored versions.
+     */
+    public byte[] read(Document document) {
+        return restoreTimer.record(() -> {
+            try {
+                return read(document.getId(), document.getArchivePack(), document.getArchiveOffset(), document.getArchiveLength());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read archived content of document " + document.getId(), e);
+            }
+        });
+    }
+
+    private byte[] read(String documentId, String packName, long offset, int length) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(length);
+        try (FileChannel pack = FileChannel.open(directory.resolve(packName), StandardOpenOption.READ)) {
+            while (entry.hasRemaining()) {
+                if (pack.read(entry, offset + entry.position()) < 0) {
+                    throw new IOException("Archive entry of document " + documentId + " is truncated");
+                }
+            }
+        }
+        entry.flip();
+        String entryDocumentId = null;
+        if (entry.getInt() == ENTRY_MAGIC) {
+            byte[] id = new byte[entry.getShort()];
+            entry.get(id);
+            entryDocumentId = new String(id, StandardCharsets.UTF_8);
+        }
+        if (!documentId.equals(entryDocumentId)) {
+            throw new IOException("No archive entry of document " + documentId + " at " + packName + ":" + offset);
+        }
+        byte[] content = new byte[entry.getInt()];
+        byte[] compressed = new byte[entry.getInt()];
+        entry.get(compressed);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int inflated = 0;
+            // Inflates to the end of the stream, where the checksum is verified, and no further than the recorded length
+            while (!inflater.finished() && inflated <= content.length) {
+                int read = inflated < content.length
+                        ? inflater.inflate(content, inflated, content.length - inflated)
+                        : inflater.inflate(new byte[1]);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += read;
+            }
+            if (!inflater.finished() || inflated != content.length) {
+                throw new IOException("Archive entry of document " + documentId + " is corrupt");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Archive entry of document " + documentId + " is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        return content;
+    }
+
+    private FileChannel packFor(int entryLength) throws IOException {
+        if (currentPack != null && currentPack.size() + entryLength > maxPackBytes && currentPack.size() > 0) {
+            currentPack.force(false);
+            currentPack.close();
+            currentPack = null;
+        }
+        if (currentPack == null) {
+            Files.createDirectories(directory);
+            // Only the process that created a pack appends to it
+            currentPackName = PACK_PREFIX + UUID.randomUUID() + ".dat";
+            currentPack = FileChannel.open(directory.resolve(currentPackName),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+        return currentPack;
+    }
+
+    private double size() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            long bytes = 0;
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith(PACK_PREFIX)) {
+                    bytes += Files.size(file);
+                }
+            }
+            return bytes;
+        } catch (IOException e) {
+            return Double.NaN;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (currentPack != null) {
+            currentPack.force(false);
+            currentPack.close();
+            currentPack = null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lk.ijse.cmjd.researchtracker.project.ProjectRepository;
+import lk.ijse.cmjd.researchtracker.project.Status;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves the stored bytes of documents into the {@link DocumentArchive} once their project has been
+ * COMPLETED for documents.archive.completed-after, and back into the database when the project is
+ * reopened. {@link DocumentService#readContent} reads archived documents from the archive, so
+ * downloads work the same in either tier. Off unless documents.archive.enabled is set, since every
+ * instance has to see the same archive directory. Instances that run it at the same time can each
+ * append a document; only one of them updates the row, and the other entry is unused space.
+ */
+@Component
+public class DocumentArchiver {
+
+    private final DocumentRepository documentRepository;
+    private final ProjectRepository projectRepository;
+    private final DocumentArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration completedAfter;
+    private final int batchSize;
+    private final Timer runTimer;
+    private final Counter archivedCounter;
+    private final Counter restoredCounter;
+    private final AtomicLong databaseBytes = new AtomicLong();
+
+    public DocumentArchiver(DocumentRepository documentRepository,
+                            ProjectRepository projectRepository,
+                            DocumentArchive archive,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${documents.archive.enabled:false}") boolean enabled,
+                            @Value("${documents.archive.completed-after:P90D}") Duration completedAfter,
+                            @Value("${documents.archive.batch-size:50}") int batchSize) {
+        this.documentRepository = documentRepository;
+        this.projectRepository = projectRepository;
+        this.archive = archive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.completedAfter = completedAfter;
+        this.batchSize = batchSize;
+        this.runTimer = Timer.builder("documents.archive.run")
+                .description("Duration of a document archiving run")
+                .register(meterRegistry);
+        this.archivedCounter = Counter.builder("documents.archive.moved")
+                .tag("direction", "archive")
+                .description("Documents whose content was moved from the database to the archive")
+                .register(meterRegistry);
+        this.restoredCounter = Counter.builder("documents.archive.moved")
+                .tag("direction", "restore")
+                .description("Documents whose content was moved from the archive back to the database")
+                .register(meterRegistry);
+        Gauge.builder("documents.tier.size", databaseBytes, AtomicLong::get)
+                .tag("tier", "database")
+                .baseUnit("bytes")
+                .description("Size of the documents whose content is held in the database, as of the last archiving run. "
+                        + "Versions stored as deltas count at their full size")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${documents.archive.interval:PT1H}", initialDelayString = "PT5M")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        runTimer.record(() -> {
+            LocalDateTime cutoff = LocalDateTime.now().minus(completedAfter);
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            } while (moved == batchSize);
+            for (String projectId : projectRepository.findReopenedWithArchivedDocuments(Status.COMPLETED)) {
+                do {
+                    moved = transactionTemplate.execute(status -> restoreBatch(projectId));
+                } while (moved == batchSize);
+            }
+            databaseBytes.set(documentRepository.sumDatabaseFileSize());
+        });
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<String> ids = documentRepository.findArchivableIds(Status.COMPLETED, cutoff, PageRequest.of(0, batchSize));
+        List<DocumentArchive.Location> locations = new ArrayList<>(ids.size());
+        try {
+            // One document's bytes in memory at a time
+            for (String id : ids) {
+                locations.add(archive.append(id, documentRepository.findContentById(id)));
+            }
+            // Entries are on disk before any row gives up its copy
+            archive.sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            DocumentArchive.Location location = locations.get(i);
+            archivedCounter.increment(documentRepository.markArchived(
+                    ids.get(i), location.pack(), location.offset(), location.length()));
+        }
+        if (!ids.isEmpty()) {
+            projectRepository.setDocumentsArchived(documentRepository.findProjectIds(ids), true);
+        }
+        return ids.size();
+    }
+
+    private int restoreBatch(String projectId) {
+        List<String> ids = documentRepository.findArchivedIds(projectId, PageRequest.of(0, batchSize));
+        for (String id : ids) {
+            documentRepository.findById(id).ifPresent(document -> restoredCounter.increment(
+                    documentRepository.markRestored(id, document.getArchivePack(), archive.read(document))));
+        }
+        if (ids.size() < batchSize) {
+            projectRepository.setDocumentsArchived(List.of(projectId), false);
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,84 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of reconstructed document content, bounded by total bytes rather than entry count.
+ * Entries are namespaced by tenant, and each tenant is held to its own byte budget so a single
+ * institution's downloads cannot push everyone else's content out.
+ */
+@Component
+public class DocumentContentCache {
+
+    private final long maxBytes;
+    private final long maxTenantBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> tenantBytes = new HashMap<>();
+    private long currentBytes;
+
+    public DocumentContentCache(@Value("${documents.content-cache.max-size:64MB}") DataSize maxSize,
+                                @Value("${documents.content-cache.max-size-per-tenant:32MB}") DataSize maxTenantSize) {
+        this.maxBytes = maxSize.toBytes();
+        this.maxTenantBytes = Math.min(maxTenantSize.toBytes(), maxBytes);
+    }
+
+    public synchronized byte[] get(String tenantId, String documentId) {
+        Entry entry = entries.get(key(tenantId, documentId));
+        return entry != null ? entry.content : null;
+    }
+
+    public synchronized void put(String tenantId, String documentId, byte[] content) {
+        if (content.length > maxTenantBytes) {
+            return;
+        }
+        remove(key(tenantId, documentId));
+        entries.put(key(tenantId, documentId), new Entry(tenantId, content));
+        currentBytes += content.length;
+        tenantBytes.merge(tenantId, (long) content.length, Long::sum);
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (tenantBytes.get(tenantId) > maxTenantBytes && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            if (entry.tenantId.equals(tenantId)) {
+                eldest.remove();
+                release(entry);
+            }
+        }
+        eldest = entries.values().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            release(entry);
+        }
+    }
+
+    public synchronized void evict(String tenantId, String documentId) {
+        remove(key(tenantId, documentId));
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    private void release(Entry entry) {
+        currentBytes -= entry.content.length;
+        tenantBytes.computeIfPresent(entry.tenantId, (tenant, bytes) -> bytes == entry.content.length ? null : bytes - entry.content.length);
+    }
+
+    private static String key(String tenantId, String documentId) {
+        return tenantId + "/" + documentId;
+    }
+
+    private record Entry(String tenantId, byte[] content) {
+    }
+}
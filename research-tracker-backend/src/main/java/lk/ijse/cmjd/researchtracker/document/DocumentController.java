@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,9 +16,13 @@ import java.util.Optional;
 public class DocumentController {
 
     private final DocumentService service;
+    private final UploadSessionService uploadSessionService;
+    private final DocumentPreviewService previewService;
 
-    public DocumentController(DocumentService service) {
+    public DocumentController(DocumentService service, UploadSessionService uploadSessionService, DocumentPreviewService previewService) {
         this.service = service;
+        this.uploadSessionService = uploadSessionService;
+        this.previewService = previewService;
     }
 
     @GetMapping("/api/projects/{id}/documents")
@@ -31,6 +36,58 @@ public class DocumentController {
         return service.uploadDocument(id, file, title, description);
     }
 
+    /**
+     * Creates the document without its bytes when the tenant already stores a file with this SHA-256
+     * and size; 404 means the client has to upload it.
+     */
+    @PostMapping("/api/projects/{id}/documents/by-hash")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PI', 'MEMBER')")
+    public ResponseEntity<Document> createDocumentFromHash(@PathVariable String id, @RequestBody CreateDocumentFromHashRequest request) {
+        Optional<Document> document = service.createFromStoredContent(id, request);
+        return document.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/api/documents/{id}/versions")
+    public ResponseEntity<List<DocumentVersion>> getDocumentVersions(@PathVariable String id) {
+        Optional<List<DocumentVersion>> versions = service.getVersions(id);
+        return versions.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/api/documents/{id}/versions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PI', 'MEMBER')")
+    public Document uploadDocumentVersion(@PathVariable String id, @RequestParam("file") MultipartFile file, @RequestParam(value = "title", required = false) String title, @RequestParam(value = "description", required = false) String description) throws IOException {
+        return service.uploadNewVersion(id, file, title, description);
+    }
+
+    @PostMapping("/api/projects/{id}/documents/uploads")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PI', 'MEMBER')")
+    public UploadSessionStatus createUploadSession(@PathVariable String id, @RequestBody CreateUploadSessionRequest request) {
+        return uploadSessionService.createSession(id, request);
+    }
+
+    @GetMapping("/api/documents/uploads/{sessionId}")
+    public ResponseEntity<UploadSessionStatus> getUploadSession(@PathVariable String sessionId) {
+        Optional<UploadSessionStatus> status = uploadSessionService.getSessionStatus(sessionId);
+        return status.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/api/documents/uploads/{sessionId}/chunks/{offset}")
+    public UploadChunkRange uploadChunk(@PathVariable String sessionId, @PathVariable long offset, @RequestHeader(value = "X-Chunk-SHA256", required = false) String sha256, InputStream body) throws IOException {
+        return uploadSessionService.uploadChunk(sessionId, offset, sha256, body);
+    }
+
+    @PostMapping("/api/documents/uploads/{sessionId}/complete")
+    public Document completeUploadSession(@PathVariable String sessionId) throws IOException {
+        return uploadSessionService.completeSession(sessionId);
+    }
+
+    @DeleteMapping("/api/documents/uploads/{sessionId}")
+    public ResponseEntity<Void> abortUploadSession(@PathVariable String sessionId) {
+        return uploadSessionService.abortSession(sessionId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/api/documents/{id}/download")
     public ResponseEntity<byte[]> downloadDocument(@PathVariable String id) {
         Optional<Document> docOpt = service.getDocumentById(id);
@@ -39,7 +96,8 @@ public class DocumentController {
         }
 
         Document doc = docOpt.get();
-        if (doc.getContent() == null || doc.getContent().length == 0) {
+        byte[] content = service.readContent(doc);
+        if (content == null || content.length == 0) {
             return ResponseEntity.notFound().build();
         }
 
@@ -53,7 +111,24 @@ public class DocumentController {
         return ResponseEntity.ok()
                 .contentType(mediaType)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + doc.getFileName() + "\"")
-                .body(doc.getContent());
+                .body(content);
+    }
+
+    @GetMapping("/api/documents/{id}/preview")
+    public ResponseEntity<DocumentPreview> getDocumentPreview(@PathVariable String id) {
+        Optional<DocumentPreview> preview = previewService.getPreview(id);
+        return preview.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/api/documents/{id}/preview/thumbnail")
+    public ResponseEntity<byte[]> getDocumentThumbnail(@PathVariable String id) {
+        Optional<DocumentPreview> preview = previewService.getPreview(id);
+        if (preview.isEmpty() || preview.get().getThumbnail() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .body(preview.get().getThumbnail());
     }
 
     @DeleteMapping("/api/documents/{id}")
@@ -0,0 +1,39 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "document_previews")
+public class DocumentPreview {
+
+    @Id
+    private String documentId;
+
+    @Enumerated(EnumType.STRING)
+    private PreviewStatus status;
+
+    @Column(length = 2000)
+    private String excerpt;
+
+    private Integer pageCount;
+
+    private boolean thumbnailAvailable;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @JsonIgnore
+    private byte[] thumbnail;
+
+    private LocalDateTime generatedAt;
+}
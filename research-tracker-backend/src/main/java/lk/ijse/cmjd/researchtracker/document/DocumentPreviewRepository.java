@@ -0,0 +1,23 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface DocumentPreviewRepository extends JpaRepository<DocumentPreview, String> {
+
+    @Query("select p.documentId from DocumentPreview p where p.status = :status")
+    List<String> findIdsByStatus(@Param("status") PreviewStatus status, Pageable pageable);
+
+    // Updates the PENDING row only; deleting a document deletes its row, so a late result is not written back
+    @Modifying
+    @Query("update DocumentPreview p set p.status = :#{#preview.status}, p.excerpt = :#{#preview.excerpt}, " +
+            "p.pageCount = :#{#preview.pageCount}, p.thumbnailAvailable = :#{#preview.thumbnailAvailable}, " +
+            "p.thumbnail = :#{#preview.thumbnail}, p.generatedAt = :#{#preview.generatedAt} " +
+            "where p.documentId = :#{#preview.documentId}")
+    int updateResult(@Param("preview") DocumentPreview preview);
+}
@@ -0,0 +1,283 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds previews (text excerpt, page count, image thumbnail) off the request thread once an upload
+ * has committed. Work runs on a fixed-size pool with a bounded queue; when the queue is full the
+ * preview stays PENDING rather than slowing down uploads, and a periodic sweep resubmits PENDING
+ * previews as the backlog drains. The sweep also picks up previews lost to a restart. Documents over
+ * documents.preview.max-source-size are marked SKIPPED without reading their content.
+ */
+@Service
+public class DocumentPreviewService {
+
+    private static final int EXCERPT_LENGTH = 1000;
+    private static final int THUMBNAIL_SIZE = 256;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentPreviewRepository previewRepository;
+    private final DocumentService documentService;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxSourceBytes;
+    private final ThreadPoolExecutor executor;
+    // Documents queued or being generated here, so the sweep does not submit them twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Timer generationTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    public DocumentPreviewService(DocumentRepository documentRepository,
+                                  DocumentPreviewRepository previewRepository,
+                                  DocumentService documentService,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${documents.preview.workers:2}") int workers,
+                                  @Value("${documents.preview.queue-capacity:200}") int queueCapacity,
+                                  @Value("${documents.preview.max-source-size:32MB}") DataSize maxSourceSize) {
+        this.documentRepository = documentRepository;
+        this.previewRepository = previewRepository;
+        this.documentService = documentService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxSourceBytes = maxSourceSize.toBytes();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "document-preview-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("documents.preview.backlog", executor, pool -> pool.getQueue().size())
+                .description("Previews waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("documents.preview.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Previews currently being generated")
+                .register(meterRegistry);
+        this.generationTimer = Timer.builder("documents.preview.duration").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("documents.preview.rejected")
+                .description("Previews left for the sweep because the backlog was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("documents.preview.failed").register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DocumentPreview> getPreview(String documentId) {
+        // Previews carry no tenant of their own; the document lookup is what scopes them
+        if (!documentRepository.existsById(documentId)) {
+            return Optional.empty();
+        }
+        return previewRepository.findById(documentId);
+    }
+
+    /**
+     * Inserts the PENDING row in the upload's own transaction, which BEFORE_COMMIT runs in. Every
+     * synchronization callback still holds the upload's connection, so a separate transaction here
+     * needed a second connection per upload, and concurrent uploads could take the whole pool and wait
+     * on each other. Published outside a transaction, the row is written in one of its own and the
+     * work submitted straight away.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDocumentUploaded(DocumentUploadedEvent event) {
+        String documentId = event.getDocumentId();
+        DocumentPreview pending = DocumentPreview.builder()
+                .documentId(documentId)
+                .status(PreviewStatus.PENDING)
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> previewRepository.save(pending));
+            submit(documentId);
+            return;
+        }
+        previewRepository.save(pending);
+        // Hand off only once the PENDING row is committed, so the worker's result cannot race its insert
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(documentId);
+            }
+        });
+    }
+
+    /**
+     * Resubmits PENDING previews that are not queued here, as many as the backlog has room for.
+     */
+    @Scheduled(fixedDelayString = "${documents.preview.sweep-interval:PT1M}", initialDelayString = "PT1M")
+    public void resubmitPending() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        List<String> pending = transactionTemplate.execute(status -> previewRepository.findIdsByStatus(
+                PreviewStatus.PENDING, PageRequest.of(0, room + inFlight.size())));
+        for (String documentId : pending) {
+            submit(documentId);
+        }
+    }
+
+    private void submit(String documentId) {
+        if (!inFlight.add(documentId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generationTimer.record(() -> generate(documentId));
+                } finally {
+                    inFlight.remove(documentId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(documentId);
+            rejectedCounter.increment();
+            // Left PENDING for the sweep; writing here would need a second connection from the upload's thread
+        }
+    }
+
+    private void generate(String documentId) {
+        // Workers have no user to get read-your-writes for, so read the fresh upload from the primary
+        Optional<Document> document = transactionTemplate.execute(status -> documentRepository.findById(documentId));
+        if (document.isEmpty()) {
+            return;
+        }
+        Long fileSize = document.get().getFileSize();
+        if (fileSize != null && fileSize > maxSourceBytes) {
+            saveResult(DocumentPreview.builder()
+                    .documentId(documentId)
+                    .status(PreviewStatus.SKIPPED)
+                    .generatedAt(LocalDateTime.now())
+                    .build());
+            return;
+        }
+        try {
+            byte[] content = transactionTemplate.execute(status -> documentService.readContent(document.get()));
+            DocumentPreview preview = DocumentPreview.builder()
+                    .documentId(documentId)
+                    .status(PreviewStatus.READY)
+                    .generatedAt(LocalDateTime.now())
+                    .build();
+
+            String contentType = document.get().getContentType();
+            if (contentType.startsWith("image/")) {
+                preview.setThumbnail(thumbnail(content));
+                preview.setThumbnailAvailable(preview.getThumbnail() != null);
+                preview.setPageCount(1);
+            } else if (contentType.equals("application/pdf")) {
+                preview.setPageCount(countPdfPages(content));
+            } else if (isText(contentType)) {
+                preview.setExcerpt(excerpt(content));
+            }
+
+            saveResult(preview);
+        } catch (Exception e) {
+            failedCounter.increment();
+            saveResult(DocumentPreview.builder()
+                    .documentId(documentId)
+                    .status(PreviewStatus.FAILED)
+                    .generatedAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    // Overwrites the PENDING row if it is still there; gone means the document was deleted meanwhile
+    private void saveResult(DocumentPreview preview) {
+        transactionTemplate.executeWithoutResult(status -> previewRepository.updateResult(preview));
+    }
+
+    private static boolean isText(String contentType) {
+        return contentType.startsWith("text/")
+                || contentType.equals("application/json")
+                || contentType.equals("application/xml");
+    }
+
+    private static String excerpt(byte[] content) {
+        // Decode only a prefix; a cut multi-byte sequence at the end just becomes a replacement char
+        String text = new String(content, 0, Math.min(content.length, EXCERPT_LENGTH * 4), StandardCharsets.UTF_8);
+        return text.length() > EXCERPT_LENGTH ? text.substring(0, EXCERPT_LENGTH) : text;
+    }
+
+    private static byte[] thumbnail(byte[] content) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(content));
+        if (source == null) {
+            return null;
+        }
+        double scale = Math.min(1.0, (double) THUMBNAIL_SIZE / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "png", out);
+        return out.toByteArray();
+    }
+
+    // Counts page objects without a PDF library; good enough for uncompressed object tables
+    private static int countPdfPages(byte[] content) {
+        byte[] marker = "/Type".getBytes(StandardCharsets.US_ASCII);
+        int pages = 0;
+        for (int i = 0; i <= content.length - marker.length; i++) {
+            if (!Arrays.equals(content, i, i + marker.length, marker, 0, marker.length)) {
+                continue;
+            }
+            int j = i + marker.length;
+            while (j < content.length && (content[j] == ' ' || content[j] == '\r' || content[j] == '\n')) {
+                j++;
+            }
+            if (j + 5 <= content.length
+                    && content[j] == '/' && content[j + 1] == 'P' && content[j + 2] == 'a'
+                    && content[j + 3] == 'g' && content[j + 4] == 'e'
+                    && (j + 5 == content.length || content[j + 5] != 's')) {
+                pages++;
+            }
+        }
+        return pages;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,9 +1,74 @@
 package lk.ijse.cmjd.researchtracker.document;
 
+import lk.ijse.cmjd.researchtracker.project.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface DocumentRepository extends JpaRepository<Document, String> {
     List<Document> findByProjectId(String projectId);
-}
\ No newline at end of file
+
+    List<Document> findByProjectIdAndSupersededFalse(String projectId);
+
+    Optional<Document> findFirstByVersionGroupIdAndSupersededFalse(String versionGroupId);
+
+    Optional<Document> findFirstByVersionGroupIdAndIdNotOrderByVersionNumberDesc(String versionGroupId, String id);
+
+    List<Document> findByDeltaBaseId(String deltaBaseId);
+
+    // The document that stores the bytes of this content, if any; references to it are not candidates.
+    // Only the id is selected, so the stored bytes are not read.
+    Optional<StoredContent> findFirstByContentSha256AndFileSizeAndContentRefIdIsNull(String contentSha256, Long fileSize);
+
+    List<Document> findByContentRefId(String contentRefId);
+
+    @Query("select new lk.ijse.cmjd.researchtracker.document.DocumentVersion(d.id, d.versionNumber, d.title, d.fileName, " +
+            "d.contentType, d.fileSize, case when d.deltaBaseId is not null then true else false end, d.uploadedAt) " +
+            "from Document d where d.versionGroupId = :versionGroupId order by d.versionNumber desc")
+    List<DocumentVersion> findVersions(@Param("versionGroupId") String versionGroupId);
+
+    @Query("select d.id from Document d where d.project.status = :status and d.project.completedAt < :cutoff " +
+            "and d.archivePack is null and d.content is not null")
+    List<String> findArchivableIds(@Param("status") Status status, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("select d.id from Document d where d.project.id = :projectId and d.archivePack is not null")
+    List<String> findArchivedIds(@Param("projectId") String projectId, Pageable pageable);
+
+    @Query("select distinct d.project.id from Document d where d.id in :ids")
+    List<String> findProjectIds(@Param("ids") Collection<String> ids);
+
+    @Query("select d.content from Document d where d.id = :id")
+    byte[] findContentById(@Param("id") String id);
+
+    // Conditional, so of two versions uploaded on the same head only one can supersede it
+    @Modifying
+    @Query("update Document d set d.superseded = true where d.id = :id and d.superseded = false")
+    int markSuperseded(@Param("id") String id);
+
+    // Conditional on the content still being in the row, so a document changed since it was read is left alone
+    @Modifying
+    @Query("update Document d set d.content = null, d.archivePack = :pack, d.archiveOffset = :offset, " +
+            "d.archiveLength = :length where d.id = :id and d.content is not null")
+    int markArchived(@Param("id") String id, @Param("pack") String pack,
+                     @Param("offset") long offset, @Param("length") int length);
+
+    @Modifying
+    @Query("update Document d set d.content = :content, d.archivePack = null, d.archiveOffset = null, " +
+            "d.archiveLength = null where d.id = :id and d.archivePack = :pack")
+    int markRestored(@Param("id") String id, @Param("pack") String pack, @Param("content") byte[] content);
+
+    // Sums the recorded sizes rather than the blobs, so it never reads content
+    @Query("select coalesce(sum(d.fileSize), 0) from Document d where d.contentRefId is null and d.archivePack is null")
+    long sumDatabaseFileSize();
+
+    interface StoredContent {
+        String getId();
+    }
+}
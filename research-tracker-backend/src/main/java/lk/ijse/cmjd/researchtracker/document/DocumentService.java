@@ -1,59 +1,354 @@
 package lk.ijse.cmjd.researchtracker.document;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lk.ijse.cmjd.researchtracker.audit.AuditAction;
+import lk.ijse.cmjd.researchtracker.audit.AuditLog;
+import lk.ijse.cmjd.researchtracker.project.ActivityType;
 import lk.ijse.cmjd.researchtracker.project.Project;
+import lk.ijse.cmjd.researchtracker.project.ProjectActivityService;
 import lk.ijse.cmjd.researchtracker.project.ProjectRepository;
+import lk.ijse.cmjd.researchtracker.user.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
 public class DocumentService {
 
+    static final String AUDIT_TYPE = "Document";
+
     private final DocumentRepository documentRepository;
     private final ProjectRepository projectRepository;
+    private final DocumentPreviewRepository previewRepository;
+    private final DocumentContentCache contentCache;
+    private final DocumentArchive archive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectActivityService activityService;
+    private final AuditLog auditLog;
+    private final DocumentUsage documentUsage;
+    private final int maxDeltaChain;
+    private final long maxDeltaSourceBytes;
+    private final Counter preCheckSavedBytes;
+    private final Counter uploadSavedBytes;
 
-    public DocumentService(DocumentRepository documentRepository, ProjectRepository projectRepository) {
+    public DocumentService(DocumentRepository documentRepository,
+                           ProjectRepository projectRepository,
+                           DocumentPreviewRepository previewRepository,
+                           DocumentContentCache contentCache,
+                           DocumentArchive archive,
+                           ApplicationEventPublisher eventPublisher,
+                           ProjectActivityService activityService,
+                           AuditLog auditLog,
+                           DocumentUsage documentUsage,
+                           MeterRegistry meterRegistry,
+                           @Value("${documents.versions.max-delta-chain:10}") int maxDeltaChain,
+                           @Value("${documents.versions.max-delta-source-size:64MB}") DataSize maxDeltaSourceSize) {
         this.documentRepository = documentRepository;
         this.projectRepository = projectRepository;
+        this.previewRepository = previewRepository;
+        this.contentCache = contentCache;
+        this.archive = archive;
+        this.eventPublisher = eventPublisher;
+        this.activityService = activityService;
+        this.auditLog = auditLog;
+        this.documentUsage = documentUsage;
+        this.maxDeltaChain = maxDeltaChain;
+        this.maxDeltaSourceBytes = maxDeltaSourceSize.toBytes();
+        this.preCheckSavedBytes = Counter.builder("documents.dedup.bytes-saved")
+                .tag("stage", "pre-check")
+                .baseUnit("bytes")
+                .description("Bytes of duplicate uploads neither transferred nor stored, found by the client's hash pre-check")
+                .register(meterRegistry);
+        this.uploadSavedBytes = Counter.builder("documents.dedup.bytes-saved")
+                .tag("stage", "upload")
+                .baseUnit("bytes")
+                .description("Bytes of duplicate uploads received but not stored, found by hashing the upload")
+                .register(meterRegistry);
     }
 
+    @Transactional(readOnly = true)
     public List<Document> getDocumentsByProject(String projectId) {
-        return documentRepository.findByProjectId(projectId);
+        return documentRepository.findByProjectIdAndSupersededFalse(projectId);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Document> getDocumentById(String id) {
         return documentRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<List<DocumentVersion>> getVersions(String id) {
+        return documentRepository.findById(id)
+                .map(document -> documentRepository.findVersions(document.getVersionGroupId()));
+    }
+
+    /**
+     * Returns the full bytes of a document, rebuilding delta-stored versions from their base chain and
+     * reading archived ones from the {@link DocumentArchive}.
+     */
+    public byte[] readContent(Document document) {
+        if (document.getContentRefId() != null) {
+            Document stored = documentRepository.findById(document.getContentRefId())
+                    .orElseThrow(() -> new IllegalStateException("Missing content reference " + document.getContentRefId()));
+            return readContent(stored);
+        }
+        if (document.getDeltaBaseId() == null && document.getArchivePack() == null) {
+            return document.getContent();
+        }
+        byte[] cached = contentCache.get(document.getTenantId(), document.getId());
+        if (cached != null) {
+            return cached;
+        }
+        byte[] content = document.getArchivePack() != null ? archive.read(document) : document.getContent();
+        if (document.getDeltaBaseId() != null) {
+            Document base = documentRepository.findById(document.getDeltaBaseId())
+                    .orElseThrow(() -> new IllegalStateException("Missing delta base " + document.getDeltaBaseId()));
+            content = BinaryDelta.apply(readContent(base), content);
+        }
+        contentCache.put(document.getTenantId(), document.getId(), content);
+        return content;
+    }
+
+    @Transactional
     public Document uploadDocument(String projectId, MultipartFile file, String title, String description) throws IOException {
         Optional<Project> project = projectRepository.findById(projectId);
         if (project.isEmpty()) {
             throw new RuntimeException("Project not found");
         }
 
-        String contentType = file.getContentType();
-        if (contentType == null || contentType.isEmpty()) {
-            contentType = "application/octet-stream";
-        }
-
+        byte[] content = file.getBytes();
+        User uploader = currentUser();
         Document document = Document.builder()
                 .project(project.get())
                 .title(title)
                 .description(description)
                 .fileName(file.getOriginalFilename())
+                .contentType(contentTypeOf(file))
+                .fileSize((long) content.length)
+                .uploadedBy(uploader)
+                .build();
+        storeContent(document, content, sha256Hex(content));
+
+        documentUsage.recordUpload(projectId, uploader, content.length);
+        Document saved = documentRepository.save(document);
+        eventPublisher.publishEvent(new DocumentUploadedEvent(saved.getId()));
+        recordUpload(saved);
+        auditLog.record(AUDIT_TYPE, saved.getId(), AuditAction.CREATE);
+        return saved;
+    }
+
+    @Transactional
+    public Document uploadNewVersion(String documentId, MultipartFile file, String title, String description) throws IOException {
+        Document requested = documentRepository.findById(documentId)
+                .orElseThrow(() -> new RuntimeException("Document not found"));
+        // New versions always extend the chain from its current head
+        Document previous = documentRepository.findFirstByVersionGroupIdAndSupersededFalse(requested.getVersionGroupId())
+                .orElse(requested);
+
+        byte[] content = file.getBytes();
+        User uploader = currentUser();
+        Document version = Document.builder()
+                .project(previous.getProject())
+                .title(title != null ? title : previous.getTitle())
+                .description(description != null ? description : previous.getDescription())
+                .fileName(file.getOriginalFilename())
+                .contentType(contentTypeOf(file))
+                .fileSize((long) content.length)
+                .versionGroupId(previous.getVersionGroupId())
+                .versionNumber(previous.getVersionNumber() + 1)
+                .uploadedBy(uploader)
+                .build();
+
+        if (storeContent(version, content, sha256Hex(content))
+                && previous.getDeltaDepth() < maxDeltaChain
+                && content.length <= maxDeltaSourceBytes
+                && previous.getFileSize() != null && previous.getFileSize() <= maxDeltaSourceBytes) {
+            byte[] delta = BinaryDelta.encode(readContent(previous), content);
+            if (delta.length < content.length) {
+                version.setContent(delta);
+                version.setDeltaBaseId(previous.getId());
+                version.setDeltaDepth(previous.getDeltaDepth() + 1);
+            }
+        }
+
+        // The head was read without a lock; the update takes it, and fails if another version got there first
+        if (documentRepository.markSuperseded(previous.getId()) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A newer version of the document was uploaded concurrently");
+        }
+        documentUsage.recordUpload(previous.getProject().getId(), uploader, content.length);
+        Document saved = documentRepository.save(version);
+        if (saved.getDeltaBaseId() != null) {
+            // Keep the new head as fast to download as a fully stored document
+            contentCache.put(saved.getTenantId(), saved.getId(), content);
+        }
+        eventPublisher.publishEvent(new DocumentUploadedEvent(saved.getId()));
+        recordUpload(saved);
+        auditLog.record(AUDIT_TYPE, previous.getId(), AuditAction.UPDATE, List.of("superseded"));
+        auditLog.record(AUDIT_TYPE, saved.getId(), AuditAction.CREATE);
+        return saved;
+    }
+
+    /**
+     * Creates a document from content the tenant already stores, identified by its SHA-256 and size,
+     * without the client sending the bytes. Empty when no stored document has that content, in which
+     * case the client uploads the file as usual. Only documents of the caller's own tenant are matched,
+     * and those it can already download.
+     */
+    @Transactional
+    public Optional<Document> createFromStoredContent(String projectId, CreateDocumentFromHashRequest request) {
+        Optional<Project> project = projectRepository.findById(projectId);
+        if (project.isEmpty()) {
+            throw new RuntimeException("Project not found");
+        }
+        if (request.getSha256() == null || request.getFileSize() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sha256 and fileSize are required");
+        }
+
+        String sha256 = request.getSha256().toLowerCase(Locale.ROOT);
+        Optional<DocumentRepository.StoredContent> stored = documentRepository.findFirstByContentSha256AndFileSizeAndContentRefIdIsNull(sha256, request.getFileSize());
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String contentType = request.getContentType();
+        if (contentType == null || contentType.isEmpty()) {
+            contentType = "application/octet-stream";
+        }
+        User uploader = currentUser();
+        Document document = Document.builder()
+                .project(project.get())
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .fileName(request.getFileName())
                 .contentType(contentType)
-                .content(file.getBytes())
-                .uploadedBy((lk.ijse.cmjd.researchtracker.user.User) SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .fileSize(request.getFileSize())
+                .contentSha256(sha256)
+                .contentRefId(stored.get().getId())
+                .uploadedBy(uploader)
                 .build();
+        documentUsage.recordUpload(projectId, uploader, request.getFileSize());
+        Document saved = documentRepository.save(document);
+        preCheckSavedBytes.increment(request.getFileSize());
+        eventPublisher.publishEvent(new DocumentUploadedEvent(saved.getId()));
+        recordUpload(saved);
+        auditLog.record(AUDIT_TYPE, saved.getId(), AuditAction.CREATE);
+        return Optional.of(saved);
+    }
 
-        return documentRepository.save(document);
+    /**
+     * Records the content's hash on an unsaved document and stores the bytes on it, or only a
+     * reference when the tenant already stores identical content. Returns whether the bytes were
+     * stored.
+     */
+    boolean storeContent(Document document, byte[] content, String sha256) {
+        if (!referenceStoredContent(document, sha256, content.length)) {
+            return false;
+        }
+        document.setContent(content);
+        return true;
     }
 
+    /**
+     * Records the content's hash on an unsaved document and points it at identical content the
+     * tenant already stores. Returns whether the caller still has to store the bytes.
+     */
+    boolean referenceStoredContent(Document document, String sha256, long size) {
+        document.setContentSha256(sha256);
+        Optional<DocumentRepository.StoredContent> stored = documentRepository.findFirstByContentSha256AndFileSizeAndContentRefIdIsNull(sha256, size);
+        if (stored.isPresent()) {
+            document.setContentRefId(stored.get().getId());
+            uploadSavedBytes.increment(size);
+            return false;
+        }
+        return true;
+    }
+
+    @Transactional
     public void deleteDocument(String id) {
-        documentRepository.deleteById(id);
+        Optional<Document> existing = documentRepository.findById(id);
+        if (existing.isEmpty()) {
+            return;
+        }
+        Document document = existing.get();
+
+        // Versions stored as deltas against this one must be materialized before it disappears
+        for (Document dependent : documentRepository.findByDeltaBaseId(id)) {
+            dependent.setContent(readContent(dependent));
+            dependent.setDeltaBaseId(null);
+            dependent.setDeltaDepth(0);
+            documentRepository.save(dependent);
+        }
+
+        // Documents sharing this one's bytes: the first takes them over and the others point at it
+        List<Document> references = documentRepository.findByContentRefId(id);
+        if (!references.isEmpty()) {
+            Document heir = references.get(0);
+            heir.setContentRefId(null);
+            // Archive entries belong to one document id, so archived bytes move back into the row
+            heir.setContent(document.getArchivePack() != null ? archive.read(document) : document.getContent());
+            heir.setDeltaBaseId(document.getDeltaBaseId());
+            heir.setDeltaDepth(document.getDeltaDepth());
+            documentRepository.save(heir);
+            for (Document reference : references.subList(1, references.size())) {
+                reference.setContentRefId(heir.getId());
+                documentRepository.save(reference);
+            }
+        }
+
+        if (!document.isSuperseded()) {
+            documentRepository.findFirstByVersionGroupIdAndIdNotOrderByVersionNumberDesc(document.getVersionGroupId(), id)
+                    .ifPresent(previous -> {
+                        previous.setSuperseded(false);
+                        documentRepository.save(previous);
+                    });
+        }
+
+        previewRepository.findById(id).ifPresent(previewRepository::delete);
+        documentRepository.delete(document);
+        documentUsage.recordDelete(document);
+        contentCache.evict(document.getTenantId(), id);
+        auditLog.record(AUDIT_TYPE, id, AuditAction.DELETE);
+    }
+
+    private void recordUpload(Document document) {
+        if (document.getProject() != null) {
+            activityService.record(document.getProject().getId(), ActivityType.DOCUMENT_UPLOADED,
+                    document.getId(), document.getTitle(), document.getFileName());
+        }
+    }
+
+    private static String contentTypeOf(MultipartFile file) {
+        String contentType = file.getContentType();
+        if (contentType == null || contentType.isEmpty()) {
+            contentType = "application/octet-stream";
+        }
+        return contentType;
+    }
+
+    static String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static User currentUser() {
+        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
-}
\ No newline at end of file
+}
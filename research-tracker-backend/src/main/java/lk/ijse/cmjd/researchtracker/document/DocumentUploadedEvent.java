@@ -0,0 +1,14 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+public class DocumentUploadedEvent {
+
+    private final String documentId;
+
+    public DocumentUploadedEvent(String documentId) {
+        this.documentId = documentId;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+}
@@ -0,0 +1,107 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import lk.ijse.cmjd.researchtracker.project.Project;
+import lk.ijse.cmjd.researchtracker.project.ProjectRepository;
+import lk.ijse.cmjd.researchtracker.user.User;
+import lk.ijse.cmjd.researchtracker.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Document count and bytes per project and per uploader, kept as counters on the project and user rows
+ * and adjusted in the transaction of every upload and delete. Quotas are checked by the same UPDATE that
+ * takes them, so uploads cost no extra query and concurrent uploads cannot overshoot a limit. Unset
+ * quotas are unlimited.
+ */
+@Component
+public class DocumentUsage {
+
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final Integer maxProjectDocuments;
+    private final DataSize maxProjectSize;
+    private final Integer maxUserDocuments;
+    private final DataSize maxUserSize;
+
+    public DocumentUsage(ProjectRepository projectRepository,
+                         UserRepository userRepository,
+                         @Value("${documents.quota.project-max-documents:}") Integer maxProjectDocuments,
+                         @Value("${documents.quota.project-max-size:}") DataSize maxProjectSize,
+                         @Value("${documents.quota.user-max-documents:}") Integer maxUserDocuments,
+                         @Value("${documents.quota.user-max-size:}") DataSize maxUserSize) {
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.maxProjectDocuments = maxProjectDocuments;
+        this.maxProjectSize = maxProjectSize;
+        this.maxUserDocuments = maxUserDocuments;
+        this.maxUserSize = maxUserSize;
+    }
+
+    /**
+     * Counts a new document of fileSize bytes against its project and uploader. The UPDATE keeps both
+     * rows locked until the upload's transaction ends, so call it once the content has been hashed and
+     * encoded, just before saving the document. Over quota it throws 413, and the transaction rolls back.
+     */
+    public void recordUpload(String projectId, User uploader, long fileSize) {
+        if (projectRepository.addDocumentUsage(projectId, 1, fileSize,
+                limit(maxProjectDocuments), limit(maxProjectSize)) == 0) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Project document quota exceeded");
+        }
+        if (uploader != null && userRepository.addDocumentUsage(uploader.getId(), 1, fileSize,
+                limit(maxUserDocuments), limit(maxUserSize)) == 0) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "User document quota exceeded");
+        }
+    }
+
+    /**
+     * Rejects an upload that would not fit as of the counters on already loaded rows, without taking
+     * anything, so chunked uploads fail before the bytes are sent. {@link #recordUpload} still decides.
+     */
+    public void checkAvailable(Project project, User uploader, long fileSize) {
+        if (project.getDocumentCount() + 1L > limit(maxProjectDocuments)
+                || project.getDocumentBytes() + fileSize > limit(maxProjectSize)) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Project document quota exceeded");
+        }
+        if (uploader != null && (uploader.getDocumentCount() + 1L > limit(maxUserDocuments)
+                || uploader.getDocumentBytes() + fileSize > limit(maxUserSize))) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "User document quota exceeded");
+        }
+    }
+
+    public void recordDelete(Document document) {
+        long fileSize = document.getFileSize() != null ? document.getFileSize() : 0;
+        projectRepository.addDocumentUsage(document.getProject().getId(), -1, -fileSize, Integer.MAX_VALUE, Long.MAX_VALUE);
+        if (document.getUploadedBy() != null) {
+            userRepository.addDocumentUsage(document.getUploadedBy().getId(), -1, -fileSize, Integer.MAX_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public DocumentUsageReport getReport(int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return new DocumentUsageReport(
+                new DocumentUsageReport.Quota(maxProjectDocuments, maxProjectSize != null ? maxProjectSize.toBytes() : null),
+                new DocumentUsageReport.Quota(maxUserDocuments, maxUserSize != null ? maxUserSize.toBytes() : null),
+                projectRepository.findByOrderByDocumentBytesDesc(page).stream()
+                        .map(project -> new DocumentUsageReport.Entry(project.getId(), project.getTitle(),
+                                project.getDocumentCount(), project.getDocumentBytes()))
+                        .toList(),
+                userRepository.findByOrderByDocumentBytesDesc(page).stream()
+                        .map(user -> new DocumentUsageReport.Entry(user.getId(), user.getUsername(),
+                                user.getDocumentCount(), user.getDocumentBytes()))
+                        .toList());
+    }
+
+    private static int limit(Integer maxDocuments) {
+        return maxDocuments != null ? maxDocuments : Integer.MAX_VALUE;
+    }
+
+    private static long limit(DataSize maxSize) {
+        return maxSize != null ? maxSize.toBytes() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,26 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/usage")
+@PreAuthorize("hasRole('ADMIN')")
+public class DocumentUsageController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final DocumentUsage documentUsage;
+
+    public DocumentUsageController(DocumentUsage documentUsage) {
+        this.documentUsage = documentUsage;
+    }
+
+    @GetMapping
+    public DocumentUsageReport getUsage(@RequestParam(defaultValue = "50") int limit) {
+        return documentUsage.getReport(Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,18 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import java.util.List;
+
+/**
+ * Documents stored per project and per uploader, largest first, with the quotas uploads are checked
+ * against. Bytes are file sizes as uploaded, before deduplication, delta storage and archiving.
+ */
+public record DocumentUsageReport(Quota projectQuota, Quota userQuota, List<Entry> projects, List<Entry> users) {
+
+    // A null limit is unlimited
+    public record Quota(Integer maxDocuments, Long maxBytes) {
+    }
+
+    // name is the project's title or the user's username
+    public record Entry(String id, String name, int documentCount, long documentBytes) {
+    }
+}
@@ -0,0 +1,24 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class DocumentVersion {
+    private String id;
+    private int versionNumber;
+    private String title;
+    private String fileName;
+    private String contentType;
+    private Long fileSize;
+    private boolean delta;
+    private LocalDateTime uploadedAt;
+}
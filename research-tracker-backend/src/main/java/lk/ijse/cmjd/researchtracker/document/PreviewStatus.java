@@ -0,0 +1,9 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+public enum PreviewStatus {
+    PENDING,
+    READY,
+    FAILED,
+    // Larger than documents.preview.max-source-size, so never read for a preview
+    SKIPPED
+}
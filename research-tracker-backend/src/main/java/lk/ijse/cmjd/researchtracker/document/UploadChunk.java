@@ -0,0 +1,40 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "upload_chunks", uniqueConstraints = @UniqueConstraint(columnNames = {"session_id", "chunk_offset"}))
+public class UploadChunk {
+
+    @Id
+    private String id;
+
+    @Column(name = "session_id")
+    private String sessionId;
+
+    @Column(name = "chunk_offset")
+    private long startOffset;
+
+    private int length;
+
+    private String sha256;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @JsonIgnore
+    private byte[] content;
+
+    @PrePersist
+    public void prePersist() {
+        id = java.util.UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,21 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadChunkRange {
+
+    @JsonIgnore
+    private String chunkId;
+
+    private long offset;
+
+    private int length;
+
+    private String sha256;
+}
@@ -0,0 +1,35 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, String> {
+
+    // Ranges only, so listing a session never pulls chunk bytes
+    @Query("select new lk.ijse.cmjd.researchtracker.document.UploadChunkRange(c.id, c.startOffset, c.length, c.sha256) " +
+            "from UploadChunk c where c.sessionId = :sessionId order by c.startOffset")
+    List<UploadChunkRange> findRangesBySessionId(@Param("sessionId") String sessionId);
+
+    // Chunks at other offsets sharing a byte with [start, end); a chunk at start itself is the one being replaced
+    @Query("select count(c) from UploadChunk c where c.sessionId = :sessionId and c.startOffset <> :start " +
+            "and c.startOffset < :end and c.startOffset + c.length > :start")
+    long countOverlapping(@Param("sessionId") String sessionId, @Param("start") long start, @Param("end") long end);
+
+    @Query("select c.content from UploadChunk c where c.id = :id")
+    byte[] findContentById(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UploadChunk c where c.sessionId = :sessionId and c.startOffset = :offset")
+    int deleteBySessionIdAndOffset(@Param("sessionId") String sessionId, @Param("offset") long offset);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UploadChunk c where c.sessionId in :sessionIds")
+    int deleteBySessionIds(@Param("sessionIds") List<String> sessionIds);
+}
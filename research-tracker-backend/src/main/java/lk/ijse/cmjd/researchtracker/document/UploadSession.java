@@ -0,0 +1,57 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lk.ijse.cmjd.researchtracker.project.Project;
+import lk.ijse.cmjd.researchtracker.user.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession {
+
+    @Id
+    private String id;
+
+    @ManyToOne
+    @JoinColumn(name = "project_id")
+    @JsonIgnore
+    private Project project;
+
+    private String title;
+
+    private String description;
+
+    private String fileName;
+
+    private String contentType;
+
+    private long totalSize;
+
+    // Optional whole-file SHA-256 (hex) declared by the client, verified on completion
+    private String sha256;
+
+    @ManyToOne
+    @JoinColumn(name = "uploaded_by_id")
+    @JsonIgnore
+    private User uploadedBy;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime expiresAt;
+
+    @PrePersist
+    public void prePersist() {
+        id = java.util.UUID.randomUUID().toString();
+        createdAt = LocalDateTime.now();
+    }
+}
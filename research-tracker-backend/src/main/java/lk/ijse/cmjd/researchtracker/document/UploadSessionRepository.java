@@ -0,0 +1,28 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UploadSession s where s.id = :id")
+    Optional<UploadSession> findByIdForUpdate(@Param("id") String id);
+
+    @Query("select s.id from UploadSession s where s.expiresAt < :now")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update UploadSession s set s.expiresAt = :expiresAt where s.id = :id")
+    int extendExpiry(@Param("id") String id, @Param("expiresAt") LocalDateTime expiresAt);
+}
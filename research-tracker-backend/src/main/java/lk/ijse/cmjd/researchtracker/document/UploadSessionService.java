@@ -0,0 +1,359 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import lk.ijse.cmjd.researchtracker.audit.AuditAction;
+import lk.ijse.cmjd.researchtracker.audit.AuditLog;
+import lk.ijse.cmjd.researchtracker.project.ActivityType;
+import lk.ijse.cmjd.researchtracker.project.Project;
+import lk.ijse.cmjd.researchtracker.project.ProjectActivityService;
+import lk.ijse.cmjd.researchtracker.project.ProjectRepository;
+import lk.ijse.cmjd.researchtracker.user.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+@Service
+public class UploadSessionService {
+
+    private final UploadSessionRepository sessionRepository;
+    private final UploadChunkRepository chunkRepository;
+    private final ProjectRepository projectRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final DocumentUsage documentUsage;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectActivityService activityService;
+    private final AuditLog auditLog;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration sessionTtl;
+    private final DataSize maxChunkSize;
+    private final DataSize maxFileSize;
+
+    public UploadSessionService(UploadSessionRepository sessionRepository,
+                                UploadChunkRepository chunkRepository,
+                                ProjectRepository projectRepository,
+                                DocumentRepository documentRepository,
+                                DocumentService documentService,
+                                DocumentUsage documentUsage,
+                                ApplicationEventPublisher eventPublisher,
+                                ProjectActivityService activityService,
+                                AuditLog auditLog,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${documents.upload.session-ttl:24h}") Duration sessionTtl,
+                                @Value("${documents.upload.max-chunk-size:16MB}") DataSize maxChunkSize,
+                                @Value("${documents.upload.max-file-size:256MB}") DataSize maxFileSize) {
+        this.sessionRepository = sessionRepository;
+        this.chunkRepository = chunkRepository;
+        this.projectRepository = projectRepository;
+        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.documentUsage = documentUsage;
+        this.eventPublisher = eventPublisher;
+        this.activityService = activityService;
+        this.auditLog = auditLog;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionTtl = sessionTtl;
+        this.maxChunkSize = maxChunkSize;
+        this.maxFileSize = maxFileSize;
+    }
+
+    public UploadSessionStatus createSession(String projectId, CreateUploadSessionRequest request) {
+        Optional<Project> project = projectRepository.findById(projectId);
+        if (project.isEmpty()) {
+            throw new RuntimeException("Project not found");
+        }
+        if (request.getTotalSize() == null || request.getTotalSize() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "totalSize is required");
+        }
+        if (request.getTotalSize() > maxFileSize.toBytes()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "File exceeds " + maxFileSize);
+        }
+        User uploader = currentUser();
+        documentUsage.checkAvailable(project.get(), uploader, request.getTotalSize());
+
+        String contentType = request.getContentType();
+        if (contentType == null || contentType.isEmpty()) {
+            contentType = "application/octet-stream";
+        }
+
+        UploadSession session = UploadSession.builder()
+                .project(project.get())
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .fileName(request.getFileName())
+                .contentType(contentType)
+                .totalSize(request.getTotalSize())
+                .sha256(request.getSha256() != null ? request.getSha256().toLowerCase(Locale.ROOT) : null)
+                .uploadedBy(uploader)
+                .expiresAt(LocalDateTime.now().plus(sessionTtl))
+                .build();
+
+        return toStatus(sessionRepository.save(session), List.of());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UploadSessionStatus> getSessionStatus(String sessionId) {
+        return findOwnSession(sessionId)
+                .map(session -> toStatus(session, chunkRepository.findRangesBySessionId(sessionId)));
+    }
+
+    /**
+     * Reads one chunk from the request body and stores it in the chunk table. Chunks are independent
+     * rows keyed by offset, so clients may upload them in parallel and re-send any chunk to replace it.
+     * A chunk that overlaps one stored at another offset is refused with 409, since completion could
+     * not tell which of the two holds the bytes.
+     * No transaction is held while the body is read from the network; replacing the stored chunk is
+     * one short transaction that locks the session row, so writes of the same session never interleave.
+     */
+    public UploadChunkRange uploadChunk(String sessionId, long offset, String expectedSha256, InputStream body) throws IOException {
+        UploadSession session = findOwnSession(sessionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found"));
+        if (offset < 0 || offset >= session.getTotalSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Offset is outside the file");
+        }
+
+        MessageDigest digest = sha256();
+        byte[] content = readChunk(body, digest);
+        if (content.length == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk is empty");
+        }
+        if (offset + content.length > session.getTotalSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk extends past the end of the file");
+        }
+
+        String actualSha256 = HexFormat.of().formatHex(digest.digest());
+        if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(actualSha256)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk checksum mismatch");
+        }
+
+        UploadChunk chunk;
+        try {
+            chunk = transactionTemplate.execute(status -> {
+                // Gone if the session was completed, aborted or expired while the body was read
+                if (sessionRepository.findByIdForUpdate(sessionId).filter(UploadSessionService::isLive).isEmpty()) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found");
+                }
+                if (chunkRepository.countOverlapping(sessionId, offset, offset + content.length) > 0) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Chunk at offset " + offset + " overlaps a chunk stored at another offset");
+                }
+                chunkRepository.deleteBySessionIdAndOffset(sessionId, offset);
+                UploadChunk saved = chunkRepository.save(UploadChunk.builder()
+                        .sessionId(sessionId)
+                        .startOffset(offset)
+                        .length(content.length)
+                        .sha256(actualSha256)
+                        .content(content)
+                        .build());
+                sessionRepository.extendExpiry(sessionId, LocalDateTime.now().plus(sessionTtl));
+                return saved;
+            });
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Chunk at offset " + offset + " is being uploaded concurrently");
+        }
+
+        return new UploadChunkRange(chunk.getId(), chunk.getStartOffset(), chunk.getLength(), chunk.getSha256());
+    }
+
+    /**
+     * Assembles the chunks into a document. The file is never held in memory: chunks are copied one at
+     * a time into a temporary file, which is then streamed into the document's content column.
+     */
+    @Transactional
+    public Document completeSession(String sessionId) throws IOException {
+        // Locked so that no chunk is replaced while the file is assembled
+        UploadSession session = sessionRepository.findByIdForUpdate(sessionId)
+                .filter(UploadSessionService::isLive)
+                .filter(UploadSessionService::ownedByCurrentUser)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found"));
+
+        List<UploadChunkRange> chunks = chunkRepository.findRangesBySessionId(sessionId);
+        long expectedOffset = 0;
+        for (UploadChunkRange chunk : chunks) {
+            if (chunk.getOffset() != expectedOffset) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Chunks are missing or overlapping at offset " + expectedOffset);
+            }
+            expectedOffset += chunk.getLength();
+        }
+        if (expectedOffset != session.getTotalSize()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Chunks are missing from offset " + expectedOffset);
+        }
+
+        Path assembled = Files.createTempFile("upload-" + sessionId, ".part");
+        try {
+            // One chunk in memory at a time
+            MessageDigest digest = sha256();
+            try (OutputStream out = Files.newOutputStream(assembled)) {
+                for (UploadChunkRange chunk : chunks) {
+                    byte[] chunkContent = chunkRepository.findContentById(chunk.getChunkId());
+                    digest.update(chunkContent);
+                    out.write(chunkContent);
+                }
+            }
+
+            String actualSha256 = HexFormat.of().formatHex(digest.digest());
+            if (session.getSha256() != null && !session.getSha256().equals(actualSha256)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "File checksum mismatch");
+            }
+
+            Document document = Document.builder()
+                    .project(session.getProject())
+                    .title(session.getTitle())
+                    .description(session.getDescription())
+                    .fileName(session.getFileName())
+                    .contentType(session.getContentType())
+                    .fileSize(session.getTotalSize())
+                    .uploadedBy(session.getUploadedBy())
+                    .build();
+            boolean storeBytes = documentService.referenceStoredContent(document, actualSha256, session.getTotalSize());
+            document = documentRepository.saveAndFlush(document);
+            if (storeBytes) {
+                writeContent(document.getId(), assembled, session.getTotalSize());
+                // The managed copy still has no content; a later flush of it would write the column back
+                entityManager.detach(document);
+            }
+            // Last, so the project and user rows are not held while the content is written; over quota, all of it rolls back
+            documentUsage.recordUpload(session.getProject().getId(), session.getUploadedBy(), session.getTotalSize());
+            return finishCompletion(session, document);
+        } finally {
+            Files.deleteIfExists(assembled);
+        }
+    }
+
+    private Document finishCompletion(UploadSession session, Document document) {
+        String sessionId = session.getId();
+
+        deleteSessions(List.of(sessionId));
+        eventPublisher.publishEvent(new DocumentUploadedEvent(document.getId()));
+        activityService.record(session.getProject().getId(), ActivityType.DOCUMENT_UPLOADED,
+                document.getId(), document.getTitle(), document.getFileName());
+        auditLog.record(DocumentService.AUDIT_TYPE, document.getId(), AuditAction.CREATE);
+        return document;
+    }
+
+    @Transactional
+    public boolean abortSession(String sessionId) {
+        if (findOwnSession(sessionId).isEmpty()) {
+            return false;
+        }
+        deleteSessions(List.of(sessionId));
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${documents.upload.cleanup-interval:PT10M}")
+    @Transactional
+    public void deleteExpiredSessions() {
+        List<String> expired = sessionRepository.findExpiredIds(LocalDateTime.now());
+        if (!expired.isEmpty()) {
+            deleteSessions(expired);
+        }
+    }
+
+    private void deleteSessions(List<String> sessionIds) {
+        chunkRepository.deleteBySessionIds(sessionIds);
+        sessionRepository.deleteAllByIdInBatch(sessionIds);
+    }
+
+    /**
+     * Streams the file into the content column of the just inserted document row, on the transaction's
+     * connection. With server-side prepared statements (the prod profile) Connector/J sends the stream
+     * in pieces, so neither the driver nor the application buffers the whole file.
+     */
+    private void writeContent(String documentId, Path file, long length) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("update documents set content = ? where id = ?");
+                 InputStream content = Files.newInputStream(file)) {
+                statement.setBinaryStream(1, content, length);
+                statement.setString(2, documentId);
+                statement.executeUpdate();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Optional<UploadSession> findOwnSession(String sessionId) {
+        return sessionRepository.findById(sessionId)
+                .filter(UploadSessionService::isLive)
+                .filter(UploadSessionService::ownedByCurrentUser);
+    }
+
+    // An expired session is treated as gone before the cleanup job gets to delete it
+    private static boolean isLive(UploadSession session) {
+        return !session.getExpiresAt().isBefore(LocalDateTime.now());
+    }
+
+    private static boolean ownedByCurrentUser(UploadSession session) {
+        return session.getUploadedBy() != null && session.getUploadedBy().getId().equals(currentUser().getId());
+    }
+
+    private byte[] readChunk(InputStream body, MessageDigest digest) throws IOException {
+        long limit = maxChunkSize.toBytes();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            if (out.size() + read > limit) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Chunk exceeds " + maxChunkSize);
+            }
+            digest.update(buffer, 0, read);
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private UploadSessionStatus toStatus(UploadSession session, List<UploadChunkRange> chunks) {
+        return UploadSessionStatus.builder()
+                .id(session.getId())
+                .fileName(session.getFileName())
+                .totalSize(session.getTotalSize())
+                .receivedBytes(chunks.stream().mapToLong(UploadChunkRange::getLength).sum())
+                .chunks(chunks)
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+
+    private static User currentUser() {
+        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
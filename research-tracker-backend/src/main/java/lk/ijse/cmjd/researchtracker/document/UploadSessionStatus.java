@@ -0,0 +1,22 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionStatus {
+    private String id;
+    private String fileName;
+    private long totalSize;
+    private long receivedBytes;
+    private List<UploadChunkRange> chunks;
+    private LocalDateTime expiresAt;
+}
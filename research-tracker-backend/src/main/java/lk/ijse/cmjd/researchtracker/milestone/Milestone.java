@@ -1,13 +1,20 @@
 package lk.ijse.cmjd.researchtracker.milestone;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
 import lk.ijse.cmjd.researchtracker.project.Project;
+import lk.ijse.cmjd.researchtracker.tenant.TenantOwned;
 import lk.ijse.cmjd.researchtracker.user.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDate;
 
@@ -17,11 +24,18 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Entity
 @Table(name = "milestones")
-public class Milestone {
+@DynamicUpdate
+@JsonFilter(SparseFields.FILTER)
+public class Milestone implements TenantOwned {
 
     @Id
     private String id;
 
+    // Institution the row belongs to; Hibernate sets it on insert and filters every query by it
+    @TenantId
+    @JsonIgnore
+    private String tenantId;
+
     @ManyToOne
     @JoinColumn(name = "project_id")
     @JsonIgnore  // Prevents infinite loop
@@ -36,13 +50,26 @@ public class Milestone {
     // FIXED: Renamed from isCompleted → completed
     private boolean completed;
 
-    @ManyToOne
+    // Maintained by MilestoneService and the overdue scan; clients no longer need to derive it
+    private boolean overdue;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id")
     @JsonIgnore  // Prevents loop via User
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User createdBy;
 
+    // Optimistic lock, exposed to clients as the ETag
+    @Version
+    private long version;
+
     @PrePersist
     public void prePersist() {
         id = java.util.UUID.randomUUID().toString();
     }
+
+    public boolean isOverdueOn(LocalDate today) {
+        return !completed && dueDate != null && dueDate.isBefore(today);
+    }
 }
\ No newline at end of file
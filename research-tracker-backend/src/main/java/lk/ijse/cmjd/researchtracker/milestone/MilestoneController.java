@@ -1,5 +1,7 @@
 package lk.ijse.cmjd.researchtracker.milestone;
 
+import lk.ijse.cmjd.researchtracker.common.ETags;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +23,16 @@ public class MilestoneController {
         return service.getMilestonesByProject(id);
     }
 
+    @GetMapping("/api/milestones/overdue")
+    public List<OverdueMilestone> getOverdueMilestones() {
+        return service.getOverdueMilestones();
+    }
+
+    @GetMapping("/api/milestones/overdue/pi/{piId}")
+    public List<OverdueMilestone> getOverdueMilestonesByPi(@PathVariable String piId) {
+        return service.getOverdueMilestonesByPi(piId);
+    }
+
     @PostMapping("/api/projects/{id}/milestones")
     @PreAuthorize("hasAnyRole('ADMIN', 'PI', 'MEMBER')")
     public Milestone addMilestone(@PathVariable String id, @RequestBody Milestone milestone) {
@@ -29,9 +41,27 @@ public class MilestoneController {
 
     @PutMapping("/api/milestones/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PI', 'MEMBER')")
-    public ResponseEntity<Milestone> updateMilestone(@PathVariable String id, @RequestBody UpdateMilestoneRequest request) {
-        Optional<Milestone> updatedMilestone = service.updateMilestone(id, request);
-        return updatedMilestone.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Milestone> updateMilestone(@PathVariable String id, @RequestBody UpdateMilestoneRequest request,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Milestone> updatedMilestone = service.updateMilestone(id, request, ETags.parseIfMatch(ifMatch));
+        return updatedMilestone
+                .map(milestone -> ResponseEntity.ok().eTag(ETags.of(milestone.getVersion())).body(milestone))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("/api/milestones/{id}/completed")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PI', 'MEMBER')")
+    public ResponseEntity<Void> setMilestoneCompleted(@PathVariable String id, @RequestBody boolean completed,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        if (!service.setMilestoneCompleted(id, completed, expectedVersion)) {
+            return ResponseEntity.notFound().build();
+        }
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+        if (expectedVersion != null) {
+            response.eTag(ETags.of(expectedVersion + 1));
+        }
+        return response.build();
     }
 
     @DeleteMapping("/api/milestones/{id}")
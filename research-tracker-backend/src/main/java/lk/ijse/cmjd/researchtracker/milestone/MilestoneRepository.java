@@ -1,9 +1,42 @@
 package lk.ijse.cmjd.researchtracker.milestone;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface MilestoneRepository extends JpaRepository<Milestone, String> {
     List<Milestone> findByProjectId(String projectId);
-}
\ No newline at end of file
+
+    @Query("select m.id from Milestone m where m.completed = false and m.overdue = false and m.dueDate < :today order by m.dueDate")
+    List<String> findNewlyOverdueIds(@Param("today") LocalDate today, Pageable pageable);
+
+    @Query("select distinct m.project.id from Milestone m where m.id in :ids")
+    List<String> findProjectIds(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("update Milestone m set m.overdue = true where m.id in :ids")
+    int markOverdue(@Param("ids") Collection<String> ids);
+
+    // A null version updates unconditionally
+    @Modifying
+    @Query("update Milestone m set m.completed = :completed, " +
+            "m.overdue = case when :completed = false and m.dueDate < :today then true else false end, " +
+            "m.version = m.version + 1 " +
+            "where m.id = :id and (:version is null or m.version = :version)")
+    int updateCompleted(@Param("id") String id, @Param("completed") boolean completed,
+                        @Param("version") Long version, @Param("today") LocalDate today);
+
+    @Query("select new lk.ijse.cmjd.researchtracker.milestone.OverdueMilestone(m.id, m.title, m.dueDate, p.id, p.title, p.pi.id) " +
+            "from Milestone m join m.project p where m.overdue = true order by m.dueDate")
+    List<OverdueMilestone> findOverdue();
+
+    @Query("select new lk.ijse.cmjd.researchtracker.milestone.OverdueMilestone(m.id, m.title, m.dueDate, p.id, p.title, p.pi.id) " +
+            "from Milestone m join m.project p where m.overdue = true and p.pi.id = :piId order by m.dueDate")
+    List<OverdueMilestone> findOverdueByPi(@Param("piId") String piId);
+}
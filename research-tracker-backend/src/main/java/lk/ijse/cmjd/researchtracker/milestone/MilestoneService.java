@@ -1,55 +1,166 @@
 package lk.ijse.cmjd.researchtracker.milestone;
 
+import lk.ijse.cmjd.researchtracker.audit.AuditAction;
+import lk.ijse.cmjd.researchtracker.audit.AuditLog;
+import lk.ijse.cmjd.researchtracker.audit.ChangedFields;
+import lk.ijse.cmjd.researchtracker.common.ETags;
+import lk.ijse.cmjd.researchtracker.project.ActivityType;
 import lk.ijse.cmjd.researchtracker.project.Project;
+import lk.ijse.cmjd.researchtracker.project.ProjectActivityService;
 import lk.ijse.cmjd.researchtracker.project.ProjectRepository;
+import lk.ijse.cmjd.researchtracker.user.User;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class MilestoneService {
 
+    private static final String AUDIT_TYPE = "Milestone";
+
     private final MilestoneRepository milestoneRepository;
     private final ProjectRepository projectRepository;
+    private final ProjectActivityService activityService;
+    private final AuditLog auditLog;
 
-    public MilestoneService(MilestoneRepository milestoneRepository, ProjectRepository projectRepository) {
+    public MilestoneService(MilestoneRepository milestoneRepository, ProjectRepository projectRepository,
+                            ProjectActivityService activityService, AuditLog auditLog) {
         this.milestoneRepository = milestoneRepository;
         this.projectRepository = projectRepository;
+        this.activityService = activityService;
+        this.auditLog = auditLog;
     }
 
+    @Transactional(readOnly = true)
     public List<Milestone> getMilestonesByProject(String projectId) {
         return milestoneRepository.findByProjectId(projectId);
     }
 
+    @Transactional(readOnly = true)
+    public List<OverdueMilestone> getOverdueMilestones() {
+        return milestoneRepository.findOverdue();
+    }
+
+    @Transactional(readOnly = true)
+    public List<OverdueMilestone> getOverdueMilestonesByPi(String piId) {
+        return milestoneRepository.findOverdueByPi(piId);
+    }
+
+    @Transactional
     public Milestone addMilestone(String projectId, Milestone milestone) {
         Optional<Project> project = projectRepository.findById(projectId);
         if (project.isPresent()) {
             milestone.setProject(project.get());
-            return milestoneRepository.save(milestone);
+            milestone.setCreatedBy((User) SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+            milestone.setOverdue(milestone.isOverdueOn(LocalDate.now()));
+            Milestone saved = milestoneRepository.save(milestone);
+            if (saved.isOverdue()) {
+                refreshOverdueCount(saved);
+            }
+            activityService.record(projectId, ActivityType.MILESTONE_ADDED, saved.getId(), saved.getTitle(), null);
+            auditLog.record(AUDIT_TYPE, saved.getId(), AuditAction.CREATE);
+            return saved;
         }
         throw new RuntimeException("Project not found");
     }
 
-    public Optional<Milestone> updateMilestone(String id, UpdateMilestoneRequest request) {
+    @Transactional
+    public Optional<Milestone> updateMilestone(String id, UpdateMilestoneRequest request, Long expectedVersion) {
         return milestoneRepository.findById(id).map(milestone -> {
+            if (expectedVersion != null && milestone.getVersion() != expectedVersion) {
+                throw ETags.preconditionFailed();
+            }
+            ChangedFields changes = new ChangedFields();
+            boolean completing = Boolean.TRUE.equals(request.getCompleted()) && !milestone.isCompleted();
             if (request.getTitle() != null) {
+                changes.compare("title", milestone.getTitle(), request.getTitle());
                 milestone.setTitle(request.getTitle());
             }
             if (request.getDescription() != null) {
+                changes.compare("description", milestone.getDescription(), request.getDescription());
                 milestone.setDescription(request.getDescription());
             }
             if (request.getDueDate() != null) {
+                changes.compare("dueDate", milestone.getDueDate(), request.getDueDate());
                 milestone.setDueDate(request.getDueDate());
             }
             if (request.getCompleted() != null) {
+                changes.compare("completed", milestone.isCompleted(), request.getCompleted());
                 milestone.setCompleted(request.getCompleted());
             }
-            return milestoneRepository.save(milestone);
+            boolean wasOverdue = milestone.isOverdue();
+            milestone.setOverdue(milestone.isOverdueOn(LocalDate.now()));
+            Milestone saved = milestoneRepository.save(milestone);
+            if (wasOverdue != saved.isOverdue()) {
+                refreshOverdueCount(saved);
+            }
+            if (completing && saved.getProject() != null) {
+                activityService.record(saved.getProject().getId(), ActivityType.MILESTONE_COMPLETED, id, saved.getTitle(), null);
+            }
+            auditLog.record(AUDIT_TYPE, id, AuditAction.UPDATE, changes.names());
+            return saved;
         });
     }
 
+    /**
+     * Marks a milestone (in)complete with a single UPDATE, conditional on the expected version when
+     * one is given, and refreshes its project's overdue count. Returns false if it does not exist.
+     */
+    @Transactional
+    public boolean setMilestoneCompleted(String id, boolean completed, Long expectedVersion) {
+        if (milestoneRepository.updateCompleted(id, completed, expectedVersion, LocalDate.now()) == 0) {
+            if (!milestoneRepository.existsById(id)) {
+                return false;
+            }
+            throw ETags.preconditionFailed();
+        }
+        projectRepository.refreshOverdueMilestoneCountOfMilestone(id);
+        if (completed) {
+            milestoneRepository.findById(id)
+                    .filter(milestone -> milestone.getProject() != null)
+                    .ifPresent(milestone -> activityService.record(milestone.getProject().getId(),
+                            ActivityType.MILESTONE_COMPLETED, id, milestone.getTitle(), null));
+        }
+        auditLog.record(AUDIT_TYPE, id, AuditAction.UPDATE, List.of("completed"));
+        return true;
+    }
+
+    @Transactional
     public void deleteMilestone(String id) {
-        milestoneRepository.deleteById(id);
+        milestoneRepository.findById(id).ifPresent(milestone -> {
+            milestoneRepository.delete(milestone);
+            if (milestone.isOverdue()) {
+                refreshOverdueCount(milestone);
+            }
+            auditLog.record(AUDIT_TYPE, id, AuditAction.DELETE);
+        });
+    }
+
+    /**
+     * Flags the next batch of milestones that have passed their due date since the last scan and
+     * refreshes the overdue counts of the affected projects. Returns the number of milestones flagged.
+     */
+    @Transactional
+    public int markNewlyOverdue(LocalDate today, int batchSize) {
+        List<String> ids = milestoneRepository.findNewlyOverdueIds(today, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<String> projectIds = milestoneRepository.findProjectIds(ids);
+        milestoneRepository.markOverdue(ids);
+        projectRepository.refreshOverdueMilestoneCounts(projectIds);
+        return ids.size();
+    }
+
+    private void refreshOverdueCount(Milestone milestone) {
+        if (milestone.getProject() != null) {
+            milestoneRepository.flush();
+            projectRepository.refreshOverdueMilestoneCounts(List.of(milestone.getProject().getId()));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package lk.ijse.cmjd.researchtracker.milestone;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class OverdueMilestone {
+    private String id;
+    private String title;
+    private LocalDate dueDate;
+    private String projectId;
+    private String projectTitle;
+    private String piId;
+}
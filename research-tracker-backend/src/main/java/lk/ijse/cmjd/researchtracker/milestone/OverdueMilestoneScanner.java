@@ -0,0 +1,49 @@
+package lk.ijse.cmjd.researchtracker.milestone;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Periodically flags milestones that have slipped past their due date. Each run only touches rows
+ * that are newly overdue (not completed, not yet flagged, due before today), read through the
+ * overdue-scan index in batches, so the cost follows the number of changes rather than the table size.
+ */
+@Component
+public class OverdueMilestoneScanner {
+
+    private final MilestoneService milestoneService;
+    private final int batchSize;
+    private final Timer scanTimer;
+    private final Counter rowsCounter;
+
+    public OverdueMilestoneScanner(MilestoneService milestoneService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${milestones.overdue.batch-size:500}") int batchSize) {
+        this.milestoneService = milestoneService;
+        this.batchSize = batchSize;
+        this.scanTimer = Timer.builder("milestones.overdue.scan")
+                .description("Duration of the overdue milestone scan")
+                .register(meterRegistry);
+        this.rowsCounter = Counter.builder("milestones.overdue.scan.rows")
+                .description("Milestones flagged as overdue by the scan")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${milestones.overdue.scan-interval:PT15M}", initialDelayString = "PT1M")
+    public void scan() {
+        scanTimer.record(() -> {
+            LocalDate today = LocalDate.now();
+            int flagged;
+            do {
+                flagged = milestoneService.markNewlyOverdue(today, batchSize);
+                rowsCounter.increment(flagged);
+            } while (flagged == batchSize);
+        });
+    }
+}
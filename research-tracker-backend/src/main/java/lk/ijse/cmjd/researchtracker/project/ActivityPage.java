@@ -0,0 +1,10 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import java.util.List;
+
+/**
+ * A page of a project's activity, newest first. Pass {@code next} back as the cursor to get the
+ * following page; it is null on the last page.
+ */
+public record ActivityPage(List<ProjectActivity> activities, String next) {
+}
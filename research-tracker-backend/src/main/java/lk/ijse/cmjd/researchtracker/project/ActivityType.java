@@ -0,0 +1,8 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+public enum ActivityType {
+    STATUS_CHANGED,
+    MILESTONE_ADDED,
+    MILESTONE_COMPLETED,
+    DOCUMENT_UPLOADED
+}
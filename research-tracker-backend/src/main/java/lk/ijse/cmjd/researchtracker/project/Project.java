@@ -1,11 +1,18 @@
 package lk.ijse.cmjd.researchtracker.project;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import lk.ijse.cmjd.researchtracker.tenant.TenantOwned;
 import lk.ijse.cmjd.researchtracker.user.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -16,11 +23,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "projects")
-public class Project {
+@DynamicUpdate
+public class Project implements TenantOwned {
 
     @Id
     private String id;
 
+    // Institution the row belongs to; Hibernate sets it on insert and filters every query by it
+    @TenantId
+    @JsonIgnore
+    private String tenantId;
+
     private String title;
 
     private String summary;
@@ -28,8 +41,11 @@ public class Project {
     @Enumerated(EnumType.STRING)
     private Status status;
 
-    @ManyToOne
+    // Not joined on load: responses resolve the PI by id through UserCache
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pi_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User pi;
 
     private String tags;
@@ -38,19 +54,54 @@ public class Project {
 
     private LocalDate endDate;
 
+    // Kept by MilestoneService and OverdueMilestoneScanner with bulk updates; never taken from a request body
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int overdueMilestoneCount;
+
+    // Optimistic lock, exposed to clients as the ETag
+    @Version
+    private long version;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
 
+    // Start of the current COMPLETED period; DocumentArchiver moves documents to the archive some time after it
+    @JsonIgnore
+    private LocalDateTime completedAt;
+
+    // Whether some of the project's documents are in the archive; kept by DocumentArchiver
+    @JsonIgnore
+    private boolean documentsArchived;
+
+    // Documents and their total file size, kept by DocumentUsage with bulk updates only
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private int documentCount;
+
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private long documentBytes;
+
     @PrePersist
     public void prePersist() {
         id = java.util.UUID.randomUUID().toString();
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        trackCompletion();
     }
 
     @PreUpdate
     public void preUpdate() {
         updatedAt = LocalDateTime.now();
+        trackCompletion();
+    }
+
+    private void trackCompletion() {
+        if (status != Status.COMPLETED) {
+            completedAt = null;
+        } else if (completedAt == null) {
+            completedAt = updatedAt;
+        }
     }
 }
\ No newline at end of file
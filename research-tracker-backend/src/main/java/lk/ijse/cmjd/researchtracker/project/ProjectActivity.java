@@ -0,0 +1,27 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a project's activity feed. The subject is the milestone or document the activity is
+ * about (absent for status changes); detail is the new status, or the uploaded file name.
+ */
+@JsonFilter(SparseFields.FILTER)
+public record ProjectActivity(long id,
+                              @JsonIgnore String tenantId,
+                              String projectId,
+                              LocalDateTime occurredAt,
+                              String actor,
+                              ActivityType type,
+                              String subjectId,
+                              String subjectTitle,
+                              String detail) {
+
+    ProjectActivity withId(long id) {
+        return new ProjectActivity(id, tenantId, projectId, occurredAt, actor, type, subjectId, subjectTitle, detail);
+    }
+}
@@ -0,0 +1,140 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hot window of each recently viewed project's latest activity, so the first page of a feed is
+ * served from memory. Windows are loaded once from the database and then kept current by appending
+ * each committed activity, rather than being thrown away on every write. At most
+ * {@code maxProjects} windows are held, least recently used first out.
+ * <p>
+ * A write that lands while a window is being loaded invalidates that load, so a window can never
+ * miss an entry that committed after its query ran. An entry that the load already read and that is
+ * appended afterwards is only kept once.
+ * <p>
+ * Windows are per instance and only see activity committed through this instance. With several
+ * instances behind a load balancer, entries written elsewhere appear once the window expires,
+ * {@code ttl} after it was loaded.
+ */
+@Component
+public class ProjectActivityCache {
+
+    private static final Comparator<ProjectActivity> NEWEST_FIRST = Comparator
+            .comparing(ProjectActivity::occurredAt)
+            .thenComparingLong(ProjectActivity::id)
+            .reversed();
+
+    private final int windowSize;
+    private final long ttlNanos;
+    private final Map<String, Window> windows;
+
+    public ProjectActivityCache(@Value("${projects.activity.hot-window:50}") int windowSize,
+                                @Value("${projects.activity.cache-max-projects:1000}") int maxProjects,
+                                @Value("${projects.activity.cache-ttl:PT30S}") Duration ttl) {
+        this.windowSize = windowSize;
+        this.ttlNanos = ttl.toNanos();
+        this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                return size() > maxProjects;
+            }
+        };
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    /**
+     * The project's cached window, newest first, or null when it has not been loaded or has expired.
+     */
+    synchronized Snapshot get(String tenantId, String projectId) {
+        String key = key(tenantId, projectId);
+        Window window = windows.get(key);
+        if (window == null || window.entries == null) {
+            return null;
+        }
+        if (System.nanoTime() - window.loadedAt >= ttlNanos) {
+            windows.remove(key);
+            return null;
+        }
+        return new Snapshot(List.copyOf(window.entries), window.hasOlder);
+    }
+
+    /**
+     * Starts loading a project's window. Pass the returned load to {@link #completeLoad} with the
+     * project's newest {@link #windowSize()} entries once they have been read.
+     */
+    synchronized Load beginLoad(String tenantId, String projectId) {
+        String key = key(tenantId, projectId);
+        Window window = windows.computeIfAbsent(key, k -> new Window());
+        return new Load(key, window, window.writes, System.nanoTime());
+    }
+
+    synchronized void completeLoad(Load load, List<ProjectActivity> newestFirst, boolean hasOlder) {
+        Window window = load.window;
+        if (windows.get(load.key) != window || window.writes != load.writes || window.entries != null) {
+            return;
+        }
+        window.entries = new ArrayList<>(newestFirst);
+        window.hasOlder = hasOlder;
+        // Counted from before the query, so the window never outlives the TTL by the load time
+        window.loadedAt = load.startedAt;
+    }
+
+    public synchronized void append(ProjectActivity activity) {
+        Window window = windows.get(key(activity.tenantId(), activity.projectId()));
+        if (window == null) {
+            return;
+        }
+        window.writes++;
+        if (window.entries == null) {
+            return;
+        }
+        // The load may have read the entry after it committed but before this append
+        for (ProjectActivity entry : window.entries) {
+            if (entry.id() == activity.id()) {
+                return;
+            }
+        }
+        // Transactions commit out of order now and then; keep the window sorted regardless
+        int position = 0;
+        while (position < window.entries.size() && NEWEST_FIRST.compare(window.entries.get(position), activity) < 0) {
+            position++;
+        }
+        window.entries.add(position, activity);
+        if (window.entries.size() > windowSize) {
+            window.entries.remove(window.entries.size() - 1);
+            window.hasOlder = true;
+        }
+    }
+
+    public synchronized void evict(String tenantId, String projectId) {
+        windows.remove(key(tenantId, projectId));
+    }
+
+    private static String key(String tenantId, String projectId) {
+        return tenantId + "/" + projectId;
+    }
+
+    record Snapshot(List<ProjectActivity> entries, boolean hasOlder) {
+    }
+
+    record Load(String key, Window window, long writes, long startedAt) {
+    }
+
+    private static final class Window {
+        private List<ProjectActivity> entries;
+        private boolean hasOlder;
+        private long writes;
+        private long loadedAt;
+    }
+}
@@ -0,0 +1,28 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ProjectActivityController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final ProjectActivityService service;
+
+    public ProjectActivityController(ProjectActivityService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/api/projects/{id}/activity")
+    public ResponseEntity<ActivityPage> getProjectActivity(@PathVariable String id,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "20") int limit) {
+        return service.getActivity(id, cursor, Math.max(1, Math.min(limit, MAX_LIMIT)))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
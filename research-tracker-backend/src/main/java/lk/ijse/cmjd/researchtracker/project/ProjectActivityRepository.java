@@ -0,0 +1,83 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import lk.ijse.cmjd.researchtracker.common.KeysetCursor;
+import lk.ijse.cmjd.researchtracker.tenant.Tenants;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the append-only project_activity table. Rows are never updated, so there is
+ * nothing for an entity to track; the feed is read straight into records.
+ */
+@Repository
+public class ProjectActivityRepository {
+
+    private static final String INSERT = """
+            insert into project_activity (tenant_id, project_id, occurred_at, actor, type, subject_id, subject_title, detail)
+            values (:tenantId, :projectId, :occurredAt, :actor, :type, :subjectId, :subjectTitle, :detail)""";
+
+    private static final RowMapper<ProjectActivity> ROW_MAPPER = (rs, rowNum) -> new ProjectActivity(
+            rs.getLong("id"),
+            rs.getString("tenant_id"),
+            rs.getString("project_id"),
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            rs.getString("actor"),
+            ActivityType.valueOf(rs.getString("type")),
+            rs.getString("subject_id"),
+            rs.getString("subject_title"),
+            rs.getString("detail"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProjectActivityRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public ProjectActivity insert(ProjectActivity activity) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(INSERT, new MapSqlParameterSource()
+                .addValue("tenantId", activity.tenantId())
+                .addValue("projectId", activity.projectId())
+                .addValue("occurredAt", Timestamp.valueOf(activity.occurredAt()))
+                .addValue("actor", activity.actor())
+                .addValue("type", activity.type().name())
+                .addValue("subjectId", activity.subjectId())
+                .addValue("subjectTitle", activity.subjectTitle())
+                .addValue("detail", activity.detail()), keyHolder, new String[]{"id"});
+        return activity.withId(keyHolder.getKey().longValue());
+    }
+
+    /**
+     * Up to {@code limit} entries of a project's feed older than the cursor (or the newest when there
+     * is none), newest first, read as one range of the feed index.
+     */
+    public List<ProjectActivity> findLatest(String tenantId, String projectId, KeysetCursor before, int limit) {
+        StringBuilder sql = new StringBuilder("select * from project_activity where project_id = :projectId");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("projectId", projectId)
+                .addValue("limit", limit);
+        if (!Tenants.ROOT.equals(tenantId)) {
+            sql.append(" and tenant_id = :tenantId");
+            params.addValue("tenantId", tenantId);
+        }
+        if (before != null) {
+            sql.append(" and (occurred_at < :beforeTime or (occurred_at = :beforeTime and id < :beforeId))");
+            params.addValue("beforeTime", Timestamp.valueOf(before.time()));
+            params.addValue("beforeId", before.id());
+        }
+        sql.append(" order by occurred_at desc, id desc limit :limit");
+        return jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+    }
+
+    public void deleteByProjectId(String projectId) {
+        jdbcTemplate.update("delete from project_activity where project_id = :projectId",
+                new MapSqlParameterSource("projectId", projectId));
+    }
+}
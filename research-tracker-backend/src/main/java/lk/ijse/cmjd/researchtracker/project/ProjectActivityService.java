@@ -0,0 +1,138 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import lk.ijse.cmjd.researchtracker.common.KeysetCursor;
+import lk.ijse.cmjd.researchtracker.tenant.Tenants;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Per-project activity feed (status changes, milestones added and completed, documents uploaded).
+ * Services append to it inside the transaction that makes the change, so the feed never disagrees
+ * with the data; the first page of each feed is then served from {@link ProjectActivityCache}.
+ */
+@Service
+public class ProjectActivityService {
+
+    private final ProjectActivityRepository activityRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectActivityCache cache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public ProjectActivityService(ProjectActivityRepository activityRepository,
+                                  ProjectRepository projectRepository,
+                                  ProjectActivityCache cache,
+                                  PlatformTransactionManager transactionManager) {
+        this.activityRepository = activityRepository;
+        this.projectRepository = projectRepository;
+        this.cache = cache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Appends an activity by the signed-in user to a project's feed. Call it from the transaction that
+     * makes the change; the cached window only sees the entry once that transaction commits.
+     */
+    public void record(String projectId, ActivityType type, String subjectId, String subjectTitle, String detail) {
+        // Stored with the column's precision, so cached entries and their cursors match the database
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        ProjectActivity activity = activityRepository.insert(new ProjectActivity(0, Tenants.current(), projectId, now,
+                currentActor(), type, subjectId, subjectTitle, detail));
+        afterCommit(() -> cache.append(activity));
+    }
+
+    /**
+     * Removes a deleted project's feed.
+     */
+    public void deleteActivity(String projectId) {
+        String tenantId = Tenants.current();
+        activityRepository.deleteByProjectId(projectId);
+        afterCommit(() -> cache.evict(tenantId, projectId));
+    }
+
+    /**
+     * A page of a project's activity, newest first, or empty when the project does not exist. The
+     * first page comes from the hot window whenever it fits; older pages are read from the database.
+     */
+    public Optional<ActivityPage> getActivity(String projectId, String cursor, int limit) {
+        String tenantId = Tenants.current();
+        KeysetCursor before = KeysetCursor.parse(cursor);
+        if (before == null && limit <= cache.windowSize()) {
+            ProjectActivityCache.Snapshot window = cache.get(tenantId, projectId);
+            if (window == null) {
+                window = loadWindow(tenantId, projectId);
+            }
+            return Optional.ofNullable(window).map(hot -> page(hot.entries(), hot.hasOlder(), limit));
+        }
+        return readOnlyTransactionTemplate.execute(status -> {
+            if (!projectRepository.existsById(projectId)) {
+                return Optional.<ActivityPage>empty();
+            }
+            return Optional.of(page(activityRepository.findLatest(tenantId, projectId, before, limit + 1), false, limit));
+        });
+    }
+
+    private ProjectActivityCache.Snapshot loadWindow(String tenantId, String projectId) {
+        int windowSize = cache.windowSize();
+        ProjectActivityCache.Load load = cache.beginLoad(tenantId, projectId);
+        // Read from the primary: the window lives as long as the project stays hot, so it must not
+        // start out behind a lagging replica
+        List<ProjectActivity> latest = transactionTemplate.execute(status -> projectRepository.existsById(projectId)
+                ? activityRepository.findLatest(tenantId, projectId, null, windowSize + 1)
+                : null);
+        if (latest == null) {
+            cache.evict(tenantId, projectId);
+            return null;
+        }
+        boolean hasOlder = latest.size() > windowSize;
+        if (hasOlder) {
+            latest = latest.subList(0, windowSize);
+        }
+        cache.completeLoad(load, latest, hasOlder);
+        return new ProjectActivityCache.Snapshot(latest, hasOlder);
+    }
+
+    private static ActivityPage page(List<ProjectActivity> newestFirst, boolean hasOlder, int limit) {
+        List<ProjectActivity> activities = newestFirst;
+        boolean more = hasOlder;
+        if (newestFirst.size() > limit) {
+            activities = newestFirst.subList(0, limit);
+            more = true;
+        }
+        if (!more || activities.isEmpty()) {
+            return new ActivityPage(activities, null);
+        }
+        ProjectActivity last = activities.get(activities.size() - 1);
+        return new ActivityPage(activities, new KeysetCursor(last.occurredAt(), last.id()).toString());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
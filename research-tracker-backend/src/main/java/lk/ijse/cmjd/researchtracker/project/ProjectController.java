@@ -1,10 +1,16 @@
 package lk.ijse.cmjd.researchtracker.project;
 
+import lk.ijse.cmjd.researchtracker.common.ETags;
+import lk.ijse.cmjd.researchtracker.user.UserCache;
+import lk.ijse.cmjd.researchtracker.user.UserSummary;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
@@ -12,46 +18,73 @@ import java.util.Optional;
 public class ProjectController {
 
     private final ProjectService service;
+    private final UserCache userCache;
 
-    public ProjectController(ProjectService service) {
+    public ProjectController(ProjectService service, UserCache userCache) {
         this.service = service;
+        this.userCache = userCache;
     }
 
     @GetMapping
-    public List<Project> getAllProjects() {
-        return service.getAllProjects();
+    public List<ProjectResponse> getAllProjects() {
+        List<Project> projects = service.getAllProjects();
+        Map<String, UserSummary> pis = userCache.getAll(projects.stream().map(ProjectController::piId).filter(Objects::nonNull).toList());
+        return projects.stream().map(project -> ProjectResponse.from(project, pis.get(piId(project)))).toList();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Project> getProjectById(@PathVariable String id) {
+    public ResponseEntity<ProjectResponse> getProjectById(@PathVariable String id) {
         Optional<Project> project = service.getProjectById(id);
-        return project.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return project.map(this::withETag).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
     @PreAuthorize("hasAnyRole('PI', 'ADMIN')")
-    public Project createProject(@RequestBody Project project) {
-        return service.createProject(project);
+    public ProjectResponse createProject(@RequestBody Project project) {
+        Project created = service.createProject(project);
+        return ProjectResponse.from(created, userCache.get(piId(created)));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('PI', 'ADMIN')")
-    public ResponseEntity<Project> updateProject(@PathVariable String id, @RequestBody Project projectDetails) {
-        Optional<Project> updatedProject = service.updateProject(id, projectDetails);
-        return updatedProject.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<ProjectResponse> updateProject(@PathVariable String id, @RequestBody Project projectDetails,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Project> updatedProject = service.updateProject(id, projectDetails, ETags.parseIfMatch(ifMatch));
+        return updatedProject.map(this::withETag).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasAnyRole('PI', 'ADMIN')")
-    public ResponseEntity<Project> updateProjectStatus(@PathVariable String id, @RequestBody Status status) {
-        Optional<Project> updatedProject = service.updateProjectStatus(id, status);
-        return updatedProject.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    public ResponseEntity<Void> updateProjectStatus(@PathVariable String id, @RequestBody Status status,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        if (!service.updateProjectStatus(id, status, expectedVersion)) {
+            return ResponseEntity.notFound().build();
+        }
+        // The new version is only known without a read when the client said which one it changed
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+        if (expectedVersion != null) {
+            response.eTag(ETags.of(expectedVersion + 1));
+        }
+        return response.build();
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteProject(@PathVariable String id) {
-        service.deleteProject(id);
+        if (!service.deleteProject(id)) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<ProjectResponse> withETag(Project project) {
+        ProjectResponse response = ProjectResponse.from(project, userCache.get(piId(project)));
+        return ResponseEntity.ok().eTag(ETags.of(project.getVersion())).body(response);
+    }
+
+    // Reading the id of the lazy PI reference does not load the user
+    private static String piId(Project project) {
+        return project.getPi() != null ? project.getPi().getId() : null;
+    }
+}
@@ -1,6 +1,52 @@
 package lk.ijse.cmjd.researchtracker.project;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface ProjectRepository extends JpaRepository<Project, String> {
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("update Project p set p.overdueMilestoneCount = " +
+            "(select count(m) from Milestone m where m.project = p and m.overdue = true) where p.id in :ids")
+    int refreshOverdueMilestoneCounts(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("update Project p set p.overdueMilestoneCount = " +
+            "(select count(m) from Milestone m where m.project = p and m.overdue = true) " +
+            "where p.id = (select m.project.id from Milestone m where m.id = :milestoneId)")
+    int refreshOverdueMilestoneCountOfMilestone(@Param("milestoneId") String milestoneId);
+
+    // A null version updates unconditionally. completedAt is the time of the change for COMPLETED, else
+    // null; an already completed project keeps its earlier completedAt, as in Project#trackCompletion.
+    @Modifying
+    @Query("update Project p set p.status = :status, p.updatedAt = :now, p.version = p.version + 1, " +
+            "p.completedAt = case when :completedAt is null then null else coalesce(p.completedAt, :completedAt) end " +
+            "where p.id = :id and (:version is null or p.version = :version)")
+    int updateStatus(@Param("id") String id, @Param("status") Status status, @Param("version") Long version,
+                     @Param("now") LocalDateTime now, @Param("completedAt") LocalDateTime completedAt);
+
+    @Query("select p.id from Project p where p.documentsArchived = true and p.status <> :status")
+    List<String> findReopenedWithArchivedDocuments(@Param("status") Status status);
+
+    // Left out of the version: archiving is not a change clients see
+    @Modifying
+    @Query("update Project p set p.documentsArchived = :archived where p.id in :ids")
+    int setDocumentsArchived(@Param("ids") Collection<String> ids, @Param("archived") boolean archived);
+
+    // Adds to the counters only if they stay within the limits, so a quota is checked and taken in one
+    // statement; 0 when they would not. Left out of the version, like setDocumentsArchived.
+    @Modifying
+    @Query("update Project p set p.documentCount = p.documentCount + :count, p.documentBytes = p.documentBytes + :bytes " +
+            "where p.id = :id and p.documentCount + :count <= :maxCount and p.documentBytes + :bytes <= :maxBytes")
+    int addDocumentUsage(@Param("id") String id, @Param("count") int count, @Param("bytes") long bytes,
+                         @Param("maxCount") int maxCount, @Param("maxBytes") long maxBytes);
+
+    List<Project> findByOrderByDocumentBytesDesc(Pageable pageable);
+}
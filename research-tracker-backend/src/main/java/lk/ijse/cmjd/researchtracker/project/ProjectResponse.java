@@ -0,0 +1,52 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
+import lk.ijse.cmjd.researchtracker.user.UserSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class ProjectResponse {
+    private String id;
+    private String title;
+    private String summary;
+    private Status status;
+    private UserSummary pi;
+    private String tags;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int overdueMilestoneCount;
+    private long version;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * The PI is passed in already resolved, since a loaded project only holds a reference to it.
+     */
+    public static ProjectResponse from(Project project, UserSummary pi) {
+        return ProjectResponse.builder()
+                .id(project.getId())
+                .title(project.getTitle())
+                .summary(project.getSummary())
+                .status(project.getStatus())
+                .pi(pi)
+                .tags(project.getTags())
+                .startDate(project.getStartDate())
+                .endDate(project.getEndDate())
+                .overdueMilestoneCount(project.getOverdueMilestoneCount())
+                .version(project.getVersion())
+                .createdAt(project.getCreatedAt())
+                .updatedAt(project.getUpdatedAt())
+                .build();
+    }
+}
@@ -1,29 +1,50 @@
 package lk.ijse.cmjd.researchtracker.project;
 
+import lk.ijse.cmjd.researchtracker.audit.AuditAction;
+import lk.ijse.cmjd.researchtracker.audit.AuditLog;
+import lk.ijse.cmjd.researchtracker.audit.ChangedFields;
+import lk.ijse.cmjd.researchtracker.common.ETags;
 import lk.ijse.cmjd.researchtracker.user.User;
+import lk.ijse.cmjd.researchtracker.user.UserRepository;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ProjectService {
 
+    private static final String AUDIT_TYPE = "Project";
+
     private final ProjectRepository repository;
+    private final ProjectActivityService activityService;
+    private final AuditLog auditLog;
+    private final UserRepository userRepository;
 
-    public ProjectService(ProjectRepository repository) {
+    public ProjectService(ProjectRepository repository, ProjectActivityService activityService, AuditLog auditLog,
+                          UserRepository userRepository) {
         this.repository = repository;
+        this.activityService = activityService;
+        this.auditLog = auditLog;
+        this.userRepository = userRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<Project> getAllProjects() {
         return repository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Project> getProjectById(String id) {
         return repository.findById(id);
     }
 
+    @Transactional
     public Project createProject(Project project) {
         // Set current user as PI
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -34,30 +55,89 @@ public class ProjectService {
             project.setStatus(Status.PLANNING);
         }
 
-        return repository.save(project);
+        Project saved = repository.save(project);
+        auditLog.record(AUDIT_TYPE, saved.getId(), AuditAction.CREATE);
+        return saved;
     }
 
-    public Optional<Project> updateProject(String id, Project projectDetails) {
+    @Transactional
+    public Optional<Project> updateProject(String id, Project projectDetails, Long expectedVersion) {
         return repository.findById(id).map(project -> {
+            if (expectedVersion != null && project.getVersion() != expectedVersion) {
+                throw ETags.preconditionFailed();
+            }
+            User pi = projectDetails.getPi() != null ? resolvePi(projectDetails.getPi()) : project.getPi();  // Keep existing if not provided
+            ChangedFields changes = new ChangedFields()
+                    .compare("title", project.getTitle(), projectDetails.getTitle())
+                    .compare("summary", project.getSummary(), projectDetails.getSummary())
+                    .compare("status", project.getStatus(), projectDetails.getStatus() != null ? projectDetails.getStatus() : project.getStatus())
+                    .compare("pi", piId(project.getPi()), piId(pi))
+                    .compare("tags", project.getTags(), projectDetails.getTags())
+                    .compare("startDate", project.getStartDate(), projectDetails.getStartDate())
+                    .compare("endDate", project.getEndDate(), projectDetails.getEndDate());
             project.setTitle(projectDetails.getTitle());
             project.setSummary(projectDetails.getSummary());
             project.setStatus(projectDetails.getStatus() != null ? projectDetails.getStatus() : project.getStatus());  // Keep existing if not provided
-            project.setPi(projectDetails.getPi() != null ? projectDetails.getPi() : project.getPi());  // Keep existing if not provided
+            project.setPi(pi);
             project.setTags(projectDetails.getTags());
             project.setStartDate(projectDetails.getStartDate());
             project.setEndDate(projectDetails.getEndDate());
-            return repository.save(project);
+            Project saved = repository.save(project);
+            if (changes.names().contains("status")) {
+                activityService.record(id, ActivityType.STATUS_CHANGED, null, null, saved.getStatus().name());
+            }
+            auditLog.record(AUDIT_TYPE, id, AuditAction.UPDATE, changes.names());
+            return saved;
         });
     }
 
-    public Optional<Project> updateProjectStatus(String id, Status status) {
-        return repository.findById(id).map(project -> {
-            project.setStatus(status);
-            return repository.save(project);
-        });
+    /**
+     * Changes only the status with a single UPDATE, conditional on the expected version when one is
+     * given. Returns false if the project does not exist.
+     */
+    @Transactional
+    public boolean updateProjectStatus(String id, Status status, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.updateStatus(id, status, expectedVersion, now, status == Status.COMPLETED ? now : null) == 1) {
+            activityService.record(id, ActivityType.STATUS_CHANGED, null, null, status.name());
+            auditLog.record(AUDIT_TYPE, id, AuditAction.UPDATE, List.of("status"));
+            return true;
+        }
+        // Only the failure path pays for telling a missing project from a stale version
+        if (!repository.existsById(id)) {
+            return false;
+        }
+        throw ETags.preconditionFailed();
+    }
+
+    /**
+     * Returns false if the project does not exist, or belongs to another tenant.
+     */
+    @Transactional
+    public boolean deleteProject(String id) {
+        Optional<Project> project = repository.findById(id);
+        if (project.isEmpty()) {
+            return false;
+        }
+        repository.delete(project.get());
+        activityService.deleteActivity(id);
+        auditLog.record(AUDIT_TYPE, id, AuditAction.DELETE);
+        return true;
+    }
+
+    /**
+     * Looks the requested PI up by id; the request's copy of the user is never stored. The lookup is
+     * tenant-scoped, so a user of another tenant is not found.
+     */
+    private User resolvePi(User requested) {
+        if (requested.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "pi.id is required");
+        }
+        return userRepository.findById(requested.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "PI not found"));
     }
 
-    public void deleteProject(String id) {
-        repository.deleteById(id);
+    private static String piId(User pi) {
+        return pi != null ? pi.getId() : null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateInviteRequest {
+    // The administrator's own tenant when null; only operators may name another
+    private String tenantId;
+    // MEMBER when null
+    private UserRole role;
+}
@@ -0,0 +1,14 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateTenantRequest {
+    private String name;
+}
@@ -0,0 +1,49 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import lk.ijse.cmjd.researchtracker.user.User;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Tenant administration. Administrators invite users into their own tenant. Operators, the
+ * administrators of the {@link Tenants#DEFAULT} tenant, also provision new tenants and invite
+ * their first administrators.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class TenantController {
+
+    private final TenantService tenantService;
+
+    public TenantController(TenantService tenantService) {
+        this.tenantService = tenantService;
+    }
+
+    @PostMapping("/tenants")
+    public Tenant createTenant(@AuthenticationPrincipal User admin, @RequestBody CreateTenantRequest request) {
+        requireOperator(admin);
+        return tenantService.provision(request.getName());
+    }
+
+    @PostMapping("/invites")
+    public TenantInviteResponse createInvite(@AuthenticationPrincipal User admin, @RequestBody CreateInviteRequest request) {
+        String tenantId = request.getTenantId() != null ? request.getTenantId() : admin.getTenantId();
+        if (!tenantId.equals(admin.getTenantId())) {
+            requireOperator(admin);
+        }
+        return tenantService.createInvite(tenantId, request.getRole(), admin.getUsername());
+    }
+
+    private static void requireOperator(User admin) {
+        if (!Tenants.DEFAULT.equals(admin.getTenantId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only operators manage other tenants");
+        }
+    }
+}
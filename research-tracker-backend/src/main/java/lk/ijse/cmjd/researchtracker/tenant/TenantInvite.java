@@ -0,0 +1,53 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single-use invite to sign up into a tenant with a given role. The tenant id is a plain column
+ * rather than a {@code @TenantId}: invites are redeemed before anyone is signed in, and operators
+ * create them for tenants other than their own.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tenant_invites")
+public class TenantInvite {
+
+    // SHA-256 (hex) of the invite code
+    @Id
+    private String codeHash;
+
+    private String tenantId;
+
+    @Enumerated(EnumType.STRING)
+    private UserRole role;
+
+    private String createdBy;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime expiresAt;
+
+    private String usedBy;
+
+    private LocalDateTime usedAt;
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+    }
+}
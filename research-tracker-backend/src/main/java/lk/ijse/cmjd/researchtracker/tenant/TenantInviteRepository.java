@@ -0,0 +1,17 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface TenantInviteRepository extends JpaRepository<TenantInvite, String> {
+
+    // Conditional, so two sign-ups with the same code cannot both redeem it; 0 when it is unknown, used or expired
+    @Modifying
+    @Query("update TenantInvite i set i.usedBy = :username, i.usedAt = :now " +
+            "where i.codeHash = :codeHash and i.usedAt is null and i.expiresAt > :now")
+    int redeem(@Param("codeHash") String codeHash, @Param("username") String username, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,11 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * A newly created invite. The code is only ever returned here; the server keeps its hash.
+ */
+public record TenantInviteResponse(String code, String tenantId, UserRole role, LocalDateTime expiresAt) {
+}
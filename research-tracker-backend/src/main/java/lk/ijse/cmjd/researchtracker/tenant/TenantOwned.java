@@ -0,0 +1,8 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+/**
+ * Entity partitioned by tenant through a {@code @TenantId} column.
+ */
+public interface TenantOwned {
+    String getTenantId();
+}
@@ -0,0 +1,85 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket per tenant, so one institution's burst of traffic cannot starve the others.
+ * Requests without a signed-in user are not counted against any tenant.
+ */
+@Component
+public class TenantRateLimitFilter extends OncePerRequestFilter {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TenantRateLimitFilter(MeterRegistry meterRegistry,
+                                 @Value("${tenants.rate-limit.requests-per-second:50}") double requestsPerSecond,
+                                 @Value("${tenants.rate-limit.burst:100}") int burst) {
+        this.meterRegistry = meterRegistry;
+        this.permitsPerNano = requestsPerSecond / 1_000_000_000d;
+        this.burst = burst;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String tenant = Tenants.current();
+        if (Tenants.ROOT.equals(tenant)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bucket bucket = buckets.computeIfAbsent(tenant, id -> new Bucket(burst));
+        long waitNanos = bucket.tryAcquire(System.nanoTime(), permitsPerNano, burst);
+        if (waitNanos > 0) {
+            Counter.builder("tenants.rate-limit.rejected")
+                    .tag("tenant", tenant)
+                    .register(meterRegistry)
+                    .increment();
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000)));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded for institution");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        // Returns 0 when a token was taken, otherwise how long until the next one is available
+        synchronized long tryAcquire(long now, double permitsPerNano, double burst) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / permitsPerNano);
+        }
+    }
+}
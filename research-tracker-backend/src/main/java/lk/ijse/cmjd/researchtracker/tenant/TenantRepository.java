@@ -0,0 +1,6 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TenantRepository extends JpaRepository<Tenant, String> {
+}
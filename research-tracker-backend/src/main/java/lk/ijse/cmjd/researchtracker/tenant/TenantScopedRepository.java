@@ -0,0 +1,31 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Base class of all repositories. Hibernate's tenant filter covers every query but not loads by
+ * primary key, so {@link #findById} hides rows owned by another tenant as if they did not exist.
+ */
+public class TenantScopedRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    public TenantScopedRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return super.findById(id).filter(TenantScopedRepository::visibleToCurrentTenant);
+    }
+
+    private static boolean visibleToCurrentTenant(Object entity) {
+        if (!(entity instanceof TenantOwned owned)) {
+            return true;
+        }
+        String tenant = Tenants.current();
+        return Tenants.ROOT.equals(tenant) || tenant.equals(owned.getTenantId());
+    }
+}
@@ -0,0 +1,92 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Provisions tenants and the invites through which users join them. Sign-up never creates a tenant:
+ * an institution exists only once an operator has provisioned it.
+ */
+@Service
+public class TenantService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final TenantRepository tenantRepository;
+    private final TenantInviteRepository inviteRepository;
+    private final Duration inviteTtl;
+
+    public TenantService(TenantRepository tenantRepository,
+                         TenantInviteRepository inviteRepository,
+                         @Value("${tenants.invite-ttl:P7D}") Duration inviteTtl) {
+        this.tenantRepository = tenantRepository;
+        this.inviteRepository = inviteRepository;
+        this.inviteTtl = inviteTtl;
+    }
+
+    @Transactional
+    public Tenant provision(String name) {
+        if (name == null || name.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "name is required");
+        }
+        String id = Tenants.fromInstitution(name);
+        if (tenantRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Tenant " + id + " already exists");
+        }
+        return tenantRepository.save(Tenant.builder().id(id).name(name.trim()).build());
+    }
+
+    @Transactional
+    public TenantInviteResponse createInvite(String tenantId, UserRole role, String createdBy) {
+        if (!tenantRepository.existsById(tenantId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tenant not found");
+        }
+        byte[] secret = new byte[24];
+        RANDOM.nextBytes(secret);
+        String code = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        TenantInvite invite = inviteRepository.save(TenantInvite.builder()
+                .codeHash(hash(code))
+                .tenantId(tenantId)
+                .role(role != null ? role : UserRole.MEMBER)
+                .createdBy(createdBy)
+                .expiresAt(LocalDateTime.now().plus(inviteTtl))
+                .build());
+        return new TenantInviteResponse(code, invite.getTenantId(), invite.getRole(), invite.getExpiresAt());
+    }
+
+    /**
+     * Marks the invite with this code as used by the user signing up and returns it, or empty when the
+     * code is unknown, already used or expired. Runs in the sign-up's transaction, so a failed sign-up
+     * leaves the invite unused.
+     */
+    @Transactional
+    public Optional<TenantInvite> redeem(String code, String username) {
+        String codeHash = hash(code);
+        if (inviteRepository.redeem(codeHash, username, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        return inviteRepository.findById(codeHash);
+    }
+
+    private static String hash(String code) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(code.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import lk.ijse.cmjd.researchtracker.user.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Locale;
+
+/**
+ * Tenant identifiers. Each institution hosted by the deployment is one tenant; its id is stored in
+ * the tenant_id column of users, projects, milestones and documents.
+ */
+public final class Tenants {
+
+    // Rows that existed before tenants were introduced, and users who sign up without an invite
+    // (tenants.open-registration). Its administrators are the deployment's operators.
+    public static final String DEFAULT = "default";
+
+    // Sessions opened without a signed-in user (sign-in, scheduled jobs, preview workers) span all tenants
+    public static final String ROOT = "*";
+
+    private Tenants() {
+    }
+
+    /**
+     * Tenant id for a newly provisioned institution, derived from its name. Never used to pick the
+     * tenant of a signing-up user, who joins one through an invite instead.
+     */
+    public static String fromInstitution(String institution) {
+        if (institution == null || institution.isBlank()) {
+            return DEFAULT;
+        }
+        String id = institution.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+        id = id.replaceAll("^-+|-+$", "");
+        if (id.isEmpty()) {
+            return DEFAULT;
+        }
+        return id.length() > 64 ? id.substring(0, 64) : id;
+    }
+
+    /**
+     * Tenant of the signed-in user, or {@link #ROOT} when there is none.
+     */
+    public static String current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user && user.getTenantId() != null) {
+            return user.getTenantId();
+        }
+        return ROOT;
+    }
+}
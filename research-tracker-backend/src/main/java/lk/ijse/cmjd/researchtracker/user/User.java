@@ -1,10 +1,13 @@
 package lk.ijse.cmjd.researchtracker.user;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lk.ijse.cmjd.researchtracker.tenant.TenantOwned;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,11 +22,16 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "users")
-public class User implements UserDetails {
+public class User implements UserDetails, TenantOwned {
 
     @Id
     private String id;
 
+    // Institution the row belongs to; Hibernate sets it on insert and filters every query by it
+    @TenantId
+    @JsonIgnore
+    private String tenantId;
+
     @Column(unique = true)
     private String username;
 
@@ -36,6 +44,15 @@ public class User implements UserDetails {
 
     private LocalDateTime createdAt;
 
+    // Documents uploaded and their total file size, kept by DocumentUsage with bulk updates only
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private int documentCount;
+
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private long documentBytes;
+
     @PrePersist
     public void prePersist() {
         id = java.util.UUID.randomUUID().toString();
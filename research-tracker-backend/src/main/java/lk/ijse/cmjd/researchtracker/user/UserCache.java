@@ -0,0 +1,118 @@
+package lk.ijse.cmjd.researchtracker.user;
+
+import lk.ijse.cmjd.researchtracker.tenant.Tenants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LRU cache of user summaries by id, so that listings which reference the same few PIs resolve them
+ * from memory instead of joining a users row onto every result row. Misses are loaded in one query
+ * per call. An entry is only returned to callers of the user's own tenant (or the root tenant).
+ * <p>
+ * Users change through registration and deletion only; both update the cache, registration once it
+ * has committed. A load that overlaps an eviction does not store its result, so a deleted user cannot
+ * be put back by a slow reader.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository repository;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long evictions;
+
+    public UserCache(UserRepository repository, @Value("${users.cache.max-entries:10000}") int maxEntries) {
+        this.repository = repository;
+        this.maxEntries = maxEntries;
+    }
+
+    public UserSummary get(String id) {
+        return id != null ? getAll(Set.of(id)).get(id) : null;
+    }
+
+    /**
+     * Summaries of the given users that exist and are visible to the current tenant, keyed by id.
+     */
+    public Map<String, UserSummary> getAll(Collection<String> ids) {
+        String tenantId = Tenants.current();
+        Map<String, UserSummary> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        long evictionsBeforeLoad;
+        synchronized (this) {
+            for (String id : ids) {
+                Entry entry = entries.get(id);
+                if (entry == null) {
+                    missing.add(id);
+                } else if (entry.isVisibleTo(tenantId)) {
+                    found.put(id, entry.summary);
+                }
+            }
+            evictionsBeforeLoad = evictions;
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        // The repository applies the tenant filter, so only visible users come back
+        for (User user : repository.findAllById(missing)) {
+            found.put(user.getId(), UserSummary.from(user));
+            synchronized (this) {
+                if (evictions == evictionsBeforeLoad) {
+                    store(user);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Caches a newly saved user. Inside a transaction the entry is only stored if it commits, so a
+     * rolled-back sign-up is never served from the cache.
+     */
+    public void put(User user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                store(user);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (UserCache.this) {
+                    store(user);
+                }
+            }
+        });
+    }
+
+    public synchronized void evict(String id) {
+        entries.remove(id);
+        evictions++;
+    }
+
+    private void store(User user) {
+        entries.put(user.getId(), new Entry(user.getTenantId(), UserSummary.from(user)));
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private record Entry(String tenantId, UserSummary summary) {
+
+        boolean isVisibleTo(String currentTenantId) {
+            return Tenants.ROOT.equals(currentTenantId) || currentTenantId.equals(tenantId);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package lk.ijse.cmjd.researchtracker.user;
 
+import lk.ijse.cmjd.researchtracker.audit.AuditAction;
+import lk.ijse.cmjd.researchtracker.audit.AuditLog;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -13,25 +15,33 @@ import java.util.Optional;
 public class UserController {
 
     private final UserRepository repository;
+    private final UserCache userCache;
+    private final AuditLog auditLog;
 
-    public UserController(UserRepository repository) {
+    public UserController(UserRepository repository, UserCache userCache, AuditLog auditLog) {
         this.repository = repository;
+        this.userCache = userCache;
+        this.auditLog = auditLog;
     }
 
     @GetMapping
-    public List<User> getAllUsers() {
-        return repository.findAll();
+    public List<UserSummary> getAllUsers() {
+        return repository.findAll().stream().map(UserSummary::from).toList();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable String id) {
-        Optional<User> user = repository.findById(id);
+    public ResponseEntity<UserSummary> getUserById(@PathVariable String id) {
+        Optional<UserSummary> user = repository.findById(id).map(UserSummary::from);
         return user.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable String id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(user -> {
+            repository.delete(user);
+            userCache.evict(id);
+            auditLog.record("User", id, AuditAction.DELETE);
+        });
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
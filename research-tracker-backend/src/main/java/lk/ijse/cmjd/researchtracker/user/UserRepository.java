@@ -1,9 +1,25 @@
 package lk.ijse.cmjd.researchtracker.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, String> {
+    @Transactional(readOnly = true)
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    // Same contract as ProjectRepository#addDocumentUsage
+    @Modifying
+    @Query("update User u set u.documentCount = u.documentCount + :count, u.documentBytes = u.documentBytes + :bytes " +
+            "where u.id = :id and u.documentCount + :count <= :maxCount and u.documentBytes + :bytes <= :maxBytes")
+    int addDocumentUsage(@Param("id") String id, @Param("count") int count, @Param("bytes") long bytes,
+                         @Param("maxCount") int maxCount, @Param("maxBytes") long maxBytes);
+
+    List<User> findByOrderByDocumentBytesDesc(Pageable pageable);
+}
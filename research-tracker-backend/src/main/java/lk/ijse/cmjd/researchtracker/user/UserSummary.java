@@ -0,0 +1,39 @@
+package lk.ijse.cmjd.researchtracker.user;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the API exposes about a user; the entity itself (password hash, authorities) is never serialized.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class UserSummary {
+    private String id;
+    private String username;
+    private String fullName;
+    private UserRole role;
+    private LocalDateTime createdAt;
+
+    public static UserSummary from(User user) {
+        if (user == null) {
+            return null;
+        }
+        return UserSummary.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .fullName(user.getFullName())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+-- Institutions hosted by the deployment. A user joins one by redeeming an invite created by one of its
+-- administrators (or, for a newly provisioned institution, by an operator); the institution typed at
+-- sign-up no longer chooses the tenant. Tenants that already have users are provisioned as they are.
+CREATE TABLE tenants (
+    id         VARCHAR(64)  NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id)
+);
+INSERT INTO tenants (id, name, created_at)
+SELECT DISTINCT tenant_id, tenant_id, CURRENT_TIMESTAMP(6) FROM users WHERE tenant_id <> 'default';
+INSERT INTO tenants (id, name, created_at) VALUES ('default', 'Default', CURRENT_TIMESTAMP(6));
+
+-- Single-use sign-up invites. Only the SHA-256 of the code is stored; the code is shown once, to the
+-- administrator who created the invite.
+CREATE TABLE tenant_invites (
+    code_hash  VARCHAR(64)  NOT NULL,
+    tenant_id  VARCHAR(64)  NOT NULL,
+    role       VARCHAR(32)  NOT NULL,
+    created_by VARCHAR(255),
+    created_at DATETIME(6),
+    expires_at DATETIME(6)  NOT NULL,
+    used_by    VARCHAR(255),
+    used_at    DATETIME(6),
+    PRIMARY KEY (code_hash),
+    CONSTRAINT fk_tenant_invites_tenant FOREIGN KEY (tenant_id) REFERENCES tenants (id)
+);
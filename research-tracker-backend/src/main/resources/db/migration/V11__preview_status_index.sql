@@ -0,0 +1,2 @@
+-- DocumentPreviewRepository.findIdsByStatus: the sweep that resubmits PENDING previews
+CREATE INDEX idx_document_previews_status ON document_previews (status);
@@ -0,0 +1,103 @@
+-- Baseline schema, matching what Hibernate generated for the entities before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and start at V2.
+
+CREATE TABLE users (
+    id         VARCHAR(255) NOT NULL,
+    username   VARCHAR(255),
+    password   VARCHAR(255),
+    full_name  VARCHAR(255),
+    role       VARCHAR(32),
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE projects (
+    id                      VARCHAR(255) NOT NULL,
+    title                   VARCHAR(255),
+    summary                 VARCHAR(255),
+    status                  VARCHAR(32),
+    pi_id                   VARCHAR(255),
+    tags                    VARCHAR(255),
+    start_date              DATE,
+    end_date                DATE,
+    overdue_milestone_count INTEGER NOT NULL DEFAULT 0,
+    created_at              DATETIME(6),
+    updated_at              DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_projects_pi FOREIGN KEY (pi_id) REFERENCES users (id)
+);
+
+CREATE TABLE milestones (
+    id            VARCHAR(255) NOT NULL,
+    project_id    VARCHAR(255),
+    title         VARCHAR(255),
+    description   VARCHAR(255),
+    due_date      DATE,
+    completed     BOOLEAN NOT NULL DEFAULT FALSE,
+    overdue       BOOLEAN NOT NULL DEFAULT FALSE,
+    created_by_id VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_milestones_project FOREIGN KEY (project_id) REFERENCES projects (id),
+    CONSTRAINT fk_milestones_created_by FOREIGN KEY (created_by_id) REFERENCES users (id)
+);
+
+CREATE TABLE documents (
+    id               VARCHAR(255) NOT NULL,
+    project_id       VARCHAR(255),
+    title            VARCHAR(255),
+    description      VARCHAR(255),
+    file_name        VARCHAR(255),
+    content_type     VARCHAR(255),
+    file_size        BIGINT,
+    version_group_id VARCHAR(255),
+    version_number   INTEGER NOT NULL DEFAULT 1,
+    superseded       BOOLEAN NOT NULL DEFAULT FALSE,
+    delta_base_id    VARCHAR(255),
+    delta_depth      INTEGER NOT NULL DEFAULT 0,
+    content          LONGBLOB,
+    uploaded_by_id   VARCHAR(255),
+    uploaded_at      DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_documents_project FOREIGN KEY (project_id) REFERENCES projects (id),
+    CONSTRAINT fk_documents_uploaded_by FOREIGN KEY (uploaded_by_id) REFERENCES users (id)
+);
+
+CREATE TABLE document_previews (
+    document_id         VARCHAR(255) NOT NULL,
+    status              VARCHAR(32),
+    excerpt             VARCHAR(2000),
+    page_count          INTEGER,
+    thumbnail_available BOOLEAN NOT NULL DEFAULT FALSE,
+    thumbnail           LONGBLOB,
+    generated_at        DATETIME(6),
+    PRIMARY KEY (document_id)
+);
+
+CREATE TABLE upload_sessions (
+    id             VARCHAR(255) NOT NULL,
+    project_id     VARCHAR(255),
+    title          VARCHAR(255),
+    description    VARCHAR(255),
+    file_name      VARCHAR(255),
+    content_type   VARCHAR(255),
+    total_size     BIGINT NOT NULL,
+    sha256         VARCHAR(255),
+    uploaded_by_id VARCHAR(255),
+    created_at     DATETIME(6),
+    expires_at     DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_upload_sessions_project FOREIGN KEY (project_id) REFERENCES projects (id),
+    CONSTRAINT fk_upload_sessions_uploaded_by FOREIGN KEY (uploaded_by_id) REFERENCES users (id)
+);
+
+CREATE TABLE upload_chunks (
+    id           VARCHAR(255) NOT NULL,
+    session_id   VARCHAR(255),
+    chunk_offset BIGINT,
+    length       INTEGER NOT NULL,
+    sha256       VARCHAR(255),
+    content      LONGBLOB,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_upload_chunks_session_offset UNIQUE (session_id, chunk_offset)
+);
@@ -0,0 +1,30 @@
+-- Indexes for the repository queries. Each one names the queries it serves.
+
+-- ProjectRepository: projects of a PI (overdue-by-PI listing, user deletes)
+CREATE INDEX idx_projects_pi ON projects (pi_id);
+
+-- MilestoneRepository.findByProjectId and the per-project overdue count refresh
+CREATE INDEX idx_milestones_project_overdue ON milestones (project_id, overdue);
+-- MilestoneRepository.findNewlyOverdueIds: the incremental overdue scan
+CREATE INDEX idx_milestones_overdue_scan ON milestones (completed, overdue, due_date);
+-- MilestoneRepository.findOverdue: overdue listing ordered by due date
+CREATE INDEX idx_milestones_overdue_due ON milestones (overdue, due_date);
+CREATE INDEX idx_milestones_created_by ON milestones (created_by_id);
+
+-- DocumentRepository.findByProjectId / findByProjectIdAndSupersededFalse
+CREATE INDEX idx_documents_project_superseded ON documents (project_id, superseded);
+-- DocumentRepository.findVersions / findFirstByVersionGroupId...
+CREATE INDEX idx_documents_version_group ON documents (version_group_id, version_number);
+-- DocumentRepository.findByDeltaBaseId
+CREATE INDEX idx_documents_delta_base ON documents (delta_base_id);
+CREATE INDEX idx_documents_uploaded_by ON documents (uploaded_by_id);
+
+-- UploadSessionRepository.findExpiredIds
+CREATE INDEX idx_upload_sessions_expires ON upload_sessions (expires_at);
+CREATE INDEX idx_upload_sessions_project ON upload_sessions (project_id);
+CREATE INDEX idx_upload_sessions_uploaded_by ON upload_sessions (uploaded_by_id);
+
+-- Hibernate created @Lob columns as TINYBLOB (255 bytes) on databases baselined from ddl-auto
+ALTER TABLE documents MODIFY content LONGBLOB;
+ALTER TABLE document_previews MODIFY thumbnail LONGBLOB;
+ALTER TABLE upload_chunks MODIFY content LONGBLOB;
@@ -0,0 +1,24 @@
+-- Tenant (institution) column on every partitioned table. Rows that predate tenants belong to 'default'.
+ALTER TABLE users ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE projects ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE milestones ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE documents ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+
+-- Hibernate adds tenant_id = ? to every query issued for a signed-in user, so these lead with it.
+-- The tenant-less indexes from V2 stay for the cross-tenant scheduled jobs and foreign keys.
+
+-- UserRepository.findAll (admin user listing)
+CREATE INDEX idx_users_tenant ON users (tenant_id, username);
+
+-- ProjectRepository.findAll, projects of a PI
+CREATE INDEX idx_projects_tenant_pi ON projects (tenant_id, pi_id);
+
+-- MilestoneRepository.findByProjectId
+CREATE INDEX idx_milestones_tenant_project ON milestones (tenant_id, project_id, overdue);
+-- MilestoneRepository.findOverdue / findOverdueByPi
+CREATE INDEX idx_milestones_tenant_overdue ON milestones (tenant_id, overdue, due_date);
+
+-- DocumentRepository.findByProjectId / findByProjectIdAndSupersededFalse
+CREATE INDEX idx_documents_tenant_project ON documents (tenant_id, project_id, superseded);
+-- DocumentRepository.findVersions / findFirstByVersionGroupId...
+CREATE INDEX idx_documents_tenant_version_group ON documents (tenant_id, version_group_id, version_number);
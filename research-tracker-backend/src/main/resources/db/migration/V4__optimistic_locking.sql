@@ -0,0 +1,3 @@
+-- @Version columns; every update of a project or milestone bumps them and is conditional on them
+ALTER TABLE projects ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE milestones ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- Who changed what. Written in batches by AuditLog after the change commits; never updated.
+CREATE TABLE audit_log (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    tenant_id      VARCHAR(64)  NOT NULL,
+    occurred_at    DATETIME(6)  NOT NULL,
+    actor          VARCHAR(255),
+    entity_type    VARCHAR(32)  NOT NULL,
+    entity_id      VARCHAR(255) NOT NULL,
+    action         VARCHAR(16)  NOT NULL,
+    changed_fields VARCHAR(1000),
+    PRIMARY KEY (id)
+);
+
+-- AuditRepository.find: newest first within a tenant, optionally for one entity
+CREATE INDEX idx_audit_log_tenant_time ON audit_log (tenant_id, occurred_at, id);
+CREATE INDEX idx_audit_log_tenant_entity ON audit_log (tenant_id, entity_type, entity_id, occurred_at, id);
@@ -0,0 +1,17 @@
+-- Per-project activity feed, appended to by the services in the same transaction as the change
+CREATE TABLE project_activity (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    tenant_id     VARCHAR(64)  NOT NULL,
+    project_id    VARCHAR(255) NOT NULL,
+    occurred_at   DATETIME(6)  NOT NULL,
+    actor         VARCHAR(255),
+    type          VARCHAR(32)  NOT NULL,
+    subject_id    VARCHAR(255),
+    subject_title VARCHAR(255),
+    detail        VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+-- ProjectActivityRepository.findLatest / deleteByProjectId. Project ids are unique across tenants,
+-- so the project leads and tenant_id is only a residual check.
+CREATE INDEX idx_project_activity_feed ON project_activity (project_id, occurred_at, id);
@@ -0,0 +1,11 @@
+-- Identical uploads share stored bytes. Documents uploaded before this migration have no hash and
+-- are never matched: for delta-stored versions the column holds a delta, not the file.
+ALTER TABLE documents ADD COLUMN content_sha256 CHAR(64);
+-- When set, the document's bytes are those of the referenced document and its content column is empty
+ALTER TABLE documents ADD COLUMN content_ref_id VARCHAR(255);
+
+-- DocumentRepository.findFirstByContentSha256AndFileSizeAndContentRefIdIsNull: the duplicate lookup,
+-- run by signed-in users so tenant_id leads
+CREATE INDEX idx_documents_tenant_content ON documents (tenant_id, content_sha256, file_size);
+-- DocumentRepository.findByContentRefId
+CREATE INDEX idx_documents_content_ref ON documents (content_ref_id);
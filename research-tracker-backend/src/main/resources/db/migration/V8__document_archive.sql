@@ -0,0 +1,17 @@
+-- Start of a project's current COMPLETED period; null while it is in any other status. Projects
+-- completed before this migration count from their last update.
+ALTER TABLE projects ADD COLUMN completed_at DATETIME(6);
+UPDATE projects SET completed_at = updated_at WHERE status = 'COMPLETED';
+
+-- Where a document's stored bytes live once DocumentArchiver has moved them out of the content column:
+-- the pack file under documents.archive.directory and the entry's position in it
+ALTER TABLE documents ADD COLUMN archive_pack VARCHAR(64);
+ALTER TABLE documents ADD COLUMN archive_offset BIGINT;
+ALTER TABLE documents ADD COLUMN archive_length INT;
+-- Set once any of the project's documents is archived, cleared when all are back in the database
+ALTER TABLE projects ADD COLUMN documents_archived BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- DocumentRepository.findArchivableIds: projects completed before the cutoff
+CREATE INDEX idx_projects_completed ON projects (status, completed_at);
+-- ProjectRepository.findReopenedWithArchivedDocuments
+CREATE INDEX idx_projects_documents_archived ON projects (documents_archived, status);
@@ -0,0 +1,18 @@
+-- Documents and their total file size per project and per uploader, kept by DocumentUsage as documents
+-- are uploaded and deleted, so usage reports and quota checks never scan the documents table. Sizes
+-- are as uploaded, before deduplication, delta storage and archiving.
+ALTER TABLE projects ADD COLUMN document_count INT NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN document_bytes BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN document_count INT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN document_bytes BIGINT NOT NULL DEFAULT 0;
+
+UPDATE projects SET
+    document_count = (SELECT COUNT(*) FROM documents d WHERE d.project_id = projects.id),
+    document_bytes = (SELECT COALESCE(SUM(d.file_size), 0) FROM documents d WHERE d.project_id = projects.id);
+UPDATE users SET
+    document_count = (SELECT COUNT(*) FROM documents d WHERE d.uploaded_by_id = users.id),
+    document_bytes = (SELECT COALESCE(SUM(d.file_size), 0) FROM documents d WHERE d.uploaded_by_id = users.id);
+
+-- DocumentUsage#getReport: a tenant's largest projects and users first
+CREATE INDEX idx_projects_document_bytes ON projects (tenant_id, document_bytes);
+CREATE INDEX idx_users_document_bytes ON users (tenant_id, document_bytes);
@@ -0,0 +1,112 @@
+package lk.ijse.cmjd.researchtracker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lk.ijse.cmjd.researchtracker.tenant.TenantService;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Base of the tests that drive the API through MockMvc, against the Flyway-built schema on an embedded
+ * database. They share one application context; every test works in tenants of its own, so tests do
+ * not see each other's rows.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:api-tests;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "tenants.rate-limit.requests-per-second=100000",
+        "tenants.rate-limit.burst=100000",
+        "documents.archive.directory=target/test-document-archive"
+})
+@AutoConfigureMockMvc
+public abstract class ApiTestSupport {
+
+    private static final String PASSWORD = "test-password";
+
+    @Autowired
+    protected MockMvc mvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TenantService tenantService;
+
+    protected record Account(String id, String username, String tenantId, String token) {
+    }
+
+    protected String newTenant() {
+        return tenantService.provision("Test institution " + UUID.randomUUID()).getId();
+    }
+
+    /**
+     * Signs up a new user through an invite into the tenant.
+     */
+    protected Account signUp(String tenantId, UserRole role) throws Exception {
+        String code = tenantService.createInvite(tenantId, role, "test").code();
+        String username = role.name().toLowerCase() + "-" + UUID.randomUUID();
+        JsonNode response = json(perform(post("/api/auth/signup"), null, Map.of(
+                "username", username, "password", PASSWORD, "fullName", username, "inviteCode", code), 200));
+        return new Account(response.get("user").get("id").asText(), username, tenantId, response.get("token").asText());
+    }
+
+    protected String createProject(Account account, String title) throws Exception {
+        return json(perform(post("/api/projects"), account, Map.of("title", title), 200)).get("id").asText();
+    }
+
+    protected String uploadDocument(Account account, String projectId, String fileName, byte[] content) throws Exception {
+        return json(perform(multipart("/api/projects/" + projectId + "/documents")
+                .file(new MockMultipartFile("file", fileName, "text/plain", content))
+                .param("title", fileName)
+                .param("description", "Uploaded by a test"), account, null, 200)).get("id").asText();
+    }
+
+    /**
+     * Sends the request as the account (anonymously when null), with the body as JSON when there is
+     * one, and checks the response status.
+     */
+    protected MvcResult perform(MockHttpServletRequestBuilder request, Account account, Object body, int expectedStatus) throws Exception {
+        if (account != null) {
+            request.header("Authorization", "Bearer " + account.token());
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(body));
+        }
+        MvcResult result = mvc.perform(request).andReturn();
+        assertEquals(expectedStatus, result.getResponse().getStatus(), () -> result.getRequest().getMethod() + " "
+                + result.getRequest().getRequestURI() + ": " + contentOf(result));
+        return result;
+    }
+
+    protected JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private static String contentOf(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+}
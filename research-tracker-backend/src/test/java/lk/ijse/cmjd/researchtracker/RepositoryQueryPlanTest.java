@@ -0,0 +1,200 @@
+package lk.ijse.cmjd.researchtracker;
+
+import lk.ijse.cmjd.researchtracker.document.DocumentPreviewRepository;
+import lk.ijse.cmjd.researchtracker.document.DocumentRepository;
+import lk.ijse.cmjd.researchtracker.document.PreviewStatus;
+import lk.ijse.cmjd.researchtracker.document.UploadChunkRepository;
+import lk.ijse.cmjd.researchtracker.document.UploadSessionRepository;
+import lk.ijse.cmjd.researchtracker.milestone.MilestoneRepository;
+import lk.ijse.cmjd.researchtracker.project.ProjectRepository;
+import lk.ijse.cmjd.researchtracker.project.Status;
+import lk.ijse.cmjd.researchtracker.tenant.TenantIdentifierResolver;
+import lk.ijse.cmjd.researchtracker.user.User;
+import lk.ijse.cmjd.researchtracker.user.UserRepository;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every custom repository query against the Flyway-built schema on an embedded database and
+ * fails if the plan of any statement it issued contains a full table scan.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=lk.ijse.cmjd.researchtracker.RepositoryQueryPlanTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TenantIdentifierResolver.class)
+class RepositoryQueryPlanTest {
+
+    // Values bound to any placeholder the test does not supply explicitly, e.g. LIMIT
+    private static final int DEFAULT_PARAMETER = 10;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MilestoneRepository milestoneRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentPreviewRepository documentPreviewRepository;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private UploadChunkRepository uploadChunkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void userByUsername() {
+        assertNoFullScan(() -> userRepository.findByUsername("alice"), "alice");
+    }
+
+    @Test
+    void projectOverdueCountRefresh() {
+        assertNoFullScan(() -> projectRepository.refreshOverdueMilestoneCounts(List.of("p1")), "p1");
+    }
+
+    @Test
+    void milestonesByProject() {
+        assertNoFullScan(() -> milestoneRepository.findByProjectId("p1"), "p1");
+    }
+
+    @Test
+    void newlyOverdueMilestones() {
+        LocalDate today = LocalDate.now();
+        assertNoFullScan(() -> milestoneRepository.findNewlyOverdueIds(today, PageRequest.of(0, 10)), today);
+    }
+
+    @Test
+    void overdueMilestones() {
+        assertNoFullScan(() -> milestoneRepository.findOverdue());
+        assertNoFullScan(() -> milestoneRepository.findOverdueByPi("u1"), "u1");
+    }
+
+    @Test
+    void documentsByProject() {
+        assertNoFullScan(() -> documentRepository.findByProjectId("p1"), "p1");
+        assertNoFullScan(() -> documentRepository.findByProjectIdAndSupersededFalse("p1"), "p1");
+    }
+
+    @Test
+    void documentVersions() {
+        assertNoFullScan(() -> documentRepository.findVersions("g1"), "g1");
+        assertNoFullScan(() -> documentRepository.findFirstByVersionGroupIdAndSupersededFalse("g1"), "g1");
+        assertNoFullScan(() -> documentRepository.findByDeltaBaseId("d1"), "d1");
+        assertNoFullScan(() -> documentRepository.findByContentRefId("d1"), "d1");
+    }
+
+    @Test
+    void documentArchive() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        assertNoFullScan(() -> documentRepository.findArchivableIds(Status.COMPLETED, cutoff, PageRequest.of(0, 10)),
+                Status.COMPLETED.name(), cutoff);
+        assertNoFullScan(() -> projectRepository.findReopenedWithArchivedDocuments(Status.COMPLETED), true, Status.COMPLETED.name());
+        assertNoFullScan(() -> documentRepository.findArchivedIds("p1", PageRequest.of(0, 10)), "p1");
+    }
+
+    @Test
+    void pendingPreviews() {
+        assertNoFullScan(() -> documentPreviewRepository.findIdsByStatus(PreviewStatus.PENDING, PageRequest.of(0, 10)),
+                PreviewStatus.PENDING.name());
+    }
+
+    @Test
+    void uploadSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        assertNoFullScan(() -> uploadSessionRepository.findExpiredIds(now), now);
+        assertNoFullScan(() -> uploadChunkRepository.findRangesBySessionId("s1"), "s1");
+    }
+
+    // Runs outside the test transaction so each repository call opens its session for the signed-in tenant
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void tenantListings() {
+        User member = User.builder().username("alice").role(UserRole.MEMBER).tenantId("uni-a").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(member, null, member.getAuthorities()));
+        try {
+            assertNoFullScan(() -> userRepository.findAll(), "uni-a");
+            assertNoFullScan(() -> projectRepository.findAll(), "uni-a");
+            assertNoFullScan(() -> milestoneRepository.findOverdue(), "uni-a", "uni-a");
+            assertNoFullScan(() -> documentRepository.findFirstByContentSha256AndFileSizeAndContentRefIdIsNull("abc", 10L), "uni-a", "abc", 10L);
+            assertNoFullScan(() -> projectRepository.findByOrderByDocumentBytesDesc(PageRequest.of(0, 10)), "uni-a");
+            assertNoFullScan(() -> userRepository.findByOrderByDocumentBytesDesc(PageRequest.of(0, 10)), "uni-a");
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void assertNoFullScan(Runnable query, Object... parameters) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        List<String> statements = List.copyOf(CapturingInspector.STATEMENTS);
+        assertFalse(statements.isEmpty(), "Query issued no SQL");
+        for (String sql : statements) {
+            String plan = explain(sql, parameters);
+            assertFalse(plan.contains(".tableScan"), () -> "Full table scan in plan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql, Object[] parameters) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int placeholders = statement.getParameterMetaData().getParameterCount();
+                for (int i = 0; i < placeholders; i++) {
+                    statement.setObject(i + 1, i < parameters.length ? parameters[i] : DEFAULT_PARAMETER);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package lk.ijse.cmjd.researchtracker.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void turnsCallersAwayOnceTheQueueTimeoutPasses() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 2, 2.0);
+
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        assertFalse(limiter.tryAcquire(20, TimeUnit.MILLISECONDS));
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void queuedCallerTakesTheNextFreedSlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 2.0);
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.tryAcquire(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        limiter.release(FAST);
+
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void slowCallsShrinkTheLimitDownToItsFloor() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 20, 2.0);
+        call(limiter, FAST);
+
+        for (int i = 0; i < 50; i++) {
+            call(limiter, SLOW);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void fastCallsUnderLoadGrowTheLimitBack() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 20, 2.0);
+        call(limiter, FAST);
+        for (int i = 0; i < 50; i++) {
+            call(limiter, SLOW);
+        }
+        assertEquals(2, limiter.getLimit());
+
+        // Keep the limit busy so each fast completion counts as evidence there is room to grow
+        for (int i = 0; i < 30; i++) {
+            int limit = limiter.getLimit();
+            for (int j = 0; j < limit; j++) {
+                assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+            }
+            for (int j = 0; j < limit; j++) {
+                limiter.release(FAST);
+            }
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void limitWithItsFloorAtTheCeilingIsFixed() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 8, 5.0);
+        call(limiter, FAST);
+
+        // A large download after small ones is not a sign of overload
+        for (int i = 0; i < 50; i++) {
+            call(limiter, SLOW * 100);
+        }
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    private static void call(AdaptiveConcurrencyLimiter limiter, long latencyNanos) throws InterruptedException {
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        limiter.release(latencyNanos);
+    }
+}
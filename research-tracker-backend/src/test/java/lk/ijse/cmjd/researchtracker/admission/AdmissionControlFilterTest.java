@@ -0,0 +1,70 @@
+package lk.ijse.cmjd.researchtracker.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void transferLimitIsFixedByDefault() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(meterRegistry, new MockEnvironment());
+
+        load(filter, "/api/documents/d1/download");
+
+        assertEquals(EndpointClass.TRANSFER.defaultMaxConcurrency(), limit(EndpointClass.TRANSFER));
+    }
+
+    @Test
+    void crudLimitAdaptsToLatency() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(meterRegistry, new MockEnvironment());
+
+        load(filter, "/api/projects");
+
+        assertTrue(limit(EndpointClass.CRUD) < EndpointClass.CRUD.defaultMaxConcurrency());
+    }
+
+    @Test
+    void transferLimitCanBeMadeAdaptive() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(meterRegistry, new MockEnvironment()
+                .withProperty("admission.transfer.adaptive", "true"));
+
+        load(filter, "/api/documents/d1/download");
+
+        assertEquals(EndpointClass.TRANSFER.defaultMinConcurrency(), limit(EndpointClass.TRANSFER));
+    }
+
+    // A few fast calls set the baseline, then every call is many times slower than it
+    private static void load(AdmissionControlFilter filter, String path) throws Exception {
+        for (int i = 0; i < 5; i++) {
+            send(filter, "GET", path, 0);
+        }
+        for (int i = 0; i < 20; i++) {
+            send(filter, "GET", path, 50);
+        }
+    }
+
+    private static void send(AdmissionControlFilter filter, String method, String path, long millis) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertEquals(200, response.getStatus());
+    }
+
+    private int limit(EndpointClass endpointClass) {
+        return (int) meterRegistry.get("admission.limit").tag("class", endpointClass.key()).gauge().value();
+    }
+}
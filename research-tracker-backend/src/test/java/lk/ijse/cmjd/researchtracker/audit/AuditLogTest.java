@@ -0,0 +1,92 @@
+package lk.ijse.cmjd.researchtracker.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AuditLogTest {
+
+    private final AuditRepository repository = mock(AuditRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void flushWritesTheQueueInBatches() {
+        AuditLog auditLog = new AuditLog(repository, meterRegistry, 100, 2);
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> batchSizes.add(invocation.<List<AuditEvent>>getArgument(0).size()))
+                .when(repository).insertAll(any());
+
+        for (int i = 0; i < 5; i++) {
+            auditLog.record("Project", "p" + i, AuditAction.CREATE);
+        }
+        auditLog.flush();
+
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(5, meterRegistry.counter("audit.written").count());
+        assertEquals(0, meterRegistry.get("audit.backlog").gauge().value());
+    }
+
+    @Test
+    void fullQueueDropsEventsInsteadOfBlocking() {
+        AuditLog auditLog = new AuditLog(repository, meterRegistry, 2, 10);
+
+        for (int i = 0; i < 3; i++) {
+            auditLog.record("Project", "p" + i, AuditAction.UPDATE, List.of("title"));
+        }
+
+        assertEquals(1, meterRegistry.counter("audit.dropped").count());
+        assertEquals(2, meterRegistry.get("audit.backlog").gauge().value());
+        auditLog.flush();
+        assertEquals(2, meterRegistry.counter("audit.written").count());
+
+        // Flushing made room again
+        auditLog.record("Project", "p3", AuditAction.DELETE);
+        assertEquals(1, meterRegistry.get("audit.backlog").gauge().value());
+    }
+
+    @Test
+    void failedBatchIsCountedAndDoesNotStopTheFlush() {
+        AuditLog auditLog = new AuditLog(repository, meterRegistry, 100, 2);
+        doThrow(new DataAccessResourceFailureException("down")).doNothing().when(repository).insertAll(any());
+
+        for (int i = 0; i < 3; i++) {
+            auditLog.record("Milestone", "m" + i, AuditAction.CREATE);
+        }
+        auditLog.flush();
+
+        assertEquals(2, meterRegistry.counter("audit.failed").count());
+        assertEquals(1, meterRegistry.counter("audit.written").count());
+    }
+
+    @Test
+    void eventsOutsideARequestAreBySystem() {
+        AuditLog auditLog = new AuditLog(repository, meterRegistry, 100, 10);
+        List<AuditEvent> written = new ArrayList<>();
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0))).when(repository).insertAll(any());
+
+        auditLog.record("Document", "d1", AuditAction.DELETE);
+        auditLog.flush();
+
+        assertEquals(1, written.size());
+        assertEquals(AuditLog.SYSTEM_ACTOR, written.get(0).actor());
+        assertEquals("Document", written.get(0).entityType());
+        assertEquals(AuditAction.DELETE, written.get(0).action());
+    }
+
+    @Test
+    void emptyQueueWritesNothing() {
+        new AuditLog(repository, meterRegistry, 100, 10).flush();
+        verify(repository, never()).insertAll(any());
+    }
+}
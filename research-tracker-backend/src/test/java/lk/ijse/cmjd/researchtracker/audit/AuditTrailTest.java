@@ -0,0 +1,150 @@
+package lk.ijse.cmjd.researchtracker.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.User;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class AuditTrailTest extends ApiTestSupport {
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String tenantId;
+    private Account admin;
+    private Account pi;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tenantId = newTenant();
+        admin = signUp(tenantId, UserRole.ADMIN);
+        pi = signUp(tenantId, UserRole.PI);
+    }
+
+    @Test
+    void recordsWhoChangedWhat() throws Exception {
+        String projectId = createProject(pi, "Audited");
+        perform(put("/api/projects/" + projectId), pi, Map.of("title", "Renamed"), 200);
+        String milestoneId = json(perform(post("/api/projects/" + projectId + "/milestones"), pi,
+                Map.of("title", "Draft", "dueDate", "2030-01-01"), 200)).get("id").asText();
+        perform(delete("/api/milestones/" + milestoneId), pi, null, 204);
+        auditLog.flush();
+
+        JsonNode projectEvents = events(Map.of("entityType", "Project", "entityId", projectId));
+        assertEquals(2, projectEvents.size());
+        // Newest first
+        assertEquals("UPDATE", projectEvents.get(0).get("action").asText());
+        assertEquals(List.of("title"), texts(projectEvents.get(0).get("changedFields")));
+        assertEquals("CREATE", projectEvents.get(1).get("action").asText());
+        for (JsonNode event : projectEvents) {
+            assertEquals(pi.username(), event.get("actor").asText());
+        }
+
+        JsonNode milestoneEvents = events(Map.of("entityType", "Milestone", "entityId", milestoneId));
+        assertEquals(List.of("DELETE", "CREATE"), List.of(milestoneEvents.get(0).get("action").asText(),
+                milestoneEvents.get(1).get("action").asText()));
+    }
+
+    @Test
+    void onlyCommittedChangesAreRecorded() throws Exception {
+        String projectId = createProject(pi, "Rolled back");
+        signIn(pi, UserRole.PI);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                auditLog.record("Project", projectId, AuditAction.UPDATE, List.of("summary"));
+                status.setRollbackOnly();
+            });
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        auditLog.flush();
+
+        JsonNode events = events(Map.of("entityType", "Project", "entityId", projectId));
+        assertEquals(1, events.size());
+        assertEquals("CREATE", events.get(0).get("action").asText());
+    }
+
+    @Test
+    void pagesThroughTheTrailWithTheCursor() throws Exception {
+        String projectId = createProject(pi, "Paged");
+        for (int i = 0; i < 4; i++) {
+            perform(put("/api/projects/" + projectId), pi, Map.of("title", "Title " + i), 200);
+        }
+        auditLog.flush();
+
+        Set<Long> seen = new HashSet<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            Map<String, String> query = cursor == null
+                    ? Map.of("entityId", projectId, "limit", "2")
+                    : Map.of("entityId", projectId, "limit", "2", "cursor", cursor);
+            JsonNode page = json(perform(withParams(get("/api/admin/audit"), query), admin, null, 200));
+            pageSizes.add(page.get("events").size());
+            for (JsonNode event : page.get("events")) {
+                assertTrue(seen.add(event.get("id").asLong()), "Event on two pages");
+            }
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (cursor != null);
+
+        assertEquals(List.of(2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void trailIsScopedToTheTenantAndToAdmins() throws Exception {
+        String projectId = createProject(pi, "Private");
+        auditLog.flush();
+
+        Account otherAdmin = signUp(newTenant(), UserRole.ADMIN);
+        assertEquals(0, json(perform(withParams(get("/api/admin/audit"), Map.of("entityId", projectId)), otherAdmin, null, 200))
+                .get("events").size());
+        perform(get("/api/admin/audit"), pi, null, 403);
+    }
+
+    private JsonNode events(Map<String, String> query) throws Exception {
+        return json(perform(withParams(get("/api/admin/audit"), query), admin, null, 200)).get("events");
+    }
+
+    private static MockHttpServletRequestBuilder withParams(MockHttpServletRequestBuilder request, Map<String, String> params) {
+        params.forEach(request::param);
+        return request;
+    }
+
+    private static List<String> texts(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    // As the account, for work done outside a request
+    private static void signIn(Account account, UserRole role) {
+        User user = User.builder()
+                .id(account.id()).username(account.username()).tenantId(account.tenantId()).role(role).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
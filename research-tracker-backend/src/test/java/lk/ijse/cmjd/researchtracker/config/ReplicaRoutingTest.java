@@ -0,0 +1,152 @@
+package lk.ijse.cmjd.researchtracker.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lk.ijse.cmjd.researchtracker.project.Project;
+import lk.ijse.cmjd.researchtracker.project.ProjectRepository;
+import lk.ijse.cmjd.researchtracker.project.ProjectService;
+import lk.ijse.cmjd.researchtracker.project.Status;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the application against two separate embedded databases standing in for the primary and a
+ * replica. Nothing replicates between them, so which one answered a read shows where it was routed.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.read-your-writes-window=PT0.5S",
+        "spring.jpa.open-in-view=false"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void resetDatabases() {
+        // Replication would normally bring the schema over; build it directly here
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+        new JdbcTemplate(primaryDataSource).update("delete from projects");
+        new JdbcTemplate(replicaDataSource).update("delete from projects");
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadOnlyServiceMethodsToReplica() {
+        Project project = projectRepository.save(project("Primary only"));
+
+        assertEquals(1, count(primaryDataSource));
+        assertEquals(0, count(replicaDataSource));
+        assertTrue(projectService.getAllProjects().isEmpty());
+        assertTrue(projectService.getProjectById(project.getId()).isEmpty());
+
+        replicate(project);
+        assertEquals(List.of("Primary only"), projectService.getAllProjects().stream().map(Project::getTitle).toList());
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromPrimaryForAWindow() throws InterruptedException {
+        signIn("alice");
+        projectRepository.save(project("Alice's project"));
+        assertEquals(1, projectService.getAllProjects().size());
+
+        signIn("bob");
+        assertTrue(projectService.getAllProjects().isEmpty());
+
+        Thread.sleep(600);
+        signIn("alice");
+        assertTrue(projectService.getAllProjects().isEmpty());
+    }
+
+    @Test
+    void readHeavyTrafficIsOffloadedFromPrimary() {
+        double primaryBefore = connections(ReplicaRoutingDataSource.PRIMARY);
+        double replicaBefore = connections(ReplicaRoutingDataSource.REPLICA);
+
+        Project project = projectRepository.save(project("Offload"));
+        replicate(project);
+        for (int i = 0; i < 9; i++) {
+            projectService.getAllProjects();
+        }
+
+        double primary = connections(ReplicaRoutingDataSource.PRIMARY) - primaryBefore;
+        double replica = connections(ReplicaRoutingDataSource.REPLICA) - replicaBefore;
+        assertEquals(1, primary);
+        assertEquals(9, replica);
+        assertEquals(0.9, replica / (primary + replica), 1e-9);
+    }
+
+    @Test
+    void replicaWithOpenInViewFailsStartup() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(ReplicaDataSourceConfig.class)
+                .withPropertyValues("app.datasource.replica.url=jdbc:h2:mem:routing-unused")
+                .run(context -> {
+                    assertNotNull(context.getStartupFailure());
+                    assertTrue(NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure()).getMessage()
+                            .contains("spring.jpa.open-in-view=false"));
+                });
+    }
+
+    private double connections(String target) {
+        return meterRegistry.get("datasource.routing.connections").tag("target", target).counter().count();
+    }
+
+    private static Project project(String title) {
+        return Project.builder().title(title).status(Status.PLANNING).build();
+    }
+
+    private void replicate(Project project) {
+        new JdbcTemplate(replicaDataSource).update(
+                "insert into projects (id, title, status, overdue_milestone_count, created_at, updated_at) values (?, ?, ?, 0, ?, ?)",
+                project.getId(), project.getTitle(), project.getStatus().name(), project.getCreatedAt(), project.getUpdatedAt());
+    }
+
+    private static int count(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from projects", Integer.class);
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,127 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryDeltaTest {
+
+    @Test
+    void roundTripsEmptyContent() {
+        assertRoundTrip(new byte[0], new byte[0]);
+        assertRoundTrip(randomBytes(4096, 1), new byte[0]);
+        assertRoundTrip(new byte[0], randomBytes(4096, 2));
+    }
+
+    @Test
+    void identicalContentIsCopiedFromTheBase() {
+        byte[] base = randomBytes(64 * 1024, 3);
+        byte[] delta = assertRoundTrip(base, base.clone());
+        assertTrue(delta.length < 64, "Delta of identical content is " + delta.length + " bytes");
+    }
+
+    @Test
+    void appendedContentOnlyInsertsTheTail() {
+        byte[] base = randomBytes(64 * 1024, 4);
+        byte[] tail = randomBytes(1000, 5);
+        byte[] target = concat(base, tail);
+        byte[] delta = assertRoundTrip(base, target);
+        assertTrue(delta.length < tail.length + 64, "Delta of appended content is " + delta.length + " bytes");
+    }
+
+    @Test
+    void insertedContentOnlyInsertsTheNewBytes() {
+        byte[] base = randomBytes(64 * 1024, 6);
+        byte[] inserted = randomBytes(500, 7);
+        int at = 10_001;
+        byte[] target = concat(Arrays.copyOfRange(base, 0, at), inserted, Arrays.copyOfRange(base, at, base.length));
+        byte[] delta = assertRoundTrip(base, target);
+        // Up to a block on either side of the insertion is re-sent along with it
+        assertTrue(delta.length < inserted.length + 4 * 32 + 64, "Delta of inserted content is " + delta.length + " bytes");
+    }
+
+    @Test
+    void roundTripsUnrelatedAndShortContent() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            assertRoundTrip(randomBytes(random.nextInt(5000), seed * 2L), randomBytes(random.nextInt(5000), seed * 2L + 1));
+        }
+        assertRoundTrip(randomBytes(31, 8), randomBytes(31, 9));
+    }
+
+    @Test
+    void roundTripsRandomEdits() {
+        Random random = new Random(10);
+        byte[] base = randomBytes(20_000, 11);
+        for (int i = 0; i < 50; i++) {
+            byte[] target = base.clone();
+            for (int edit = 0; edit < 1 + random.nextInt(10); edit++) {
+                target[random.nextInt(target.length)] = (byte) random.nextInt();
+            }
+            int cut = random.nextInt(target.length);
+            target = concat(Arrays.copyOfRange(target, 0, cut), randomBytes(random.nextInt(200), i),
+                    Arrays.copyOfRange(target, cut + random.nextInt(target.length - cut), target.length));
+            assertRoundTrip(base, target);
+        }
+    }
+
+    @Test
+    void rejectsTruncatedDelta() {
+        byte[] base = randomBytes(8192, 12);
+        byte[] target = concat(base, randomBytes(2000, 13));
+        byte[] delta = BinaryDelta.encode(base, target);
+        for (int length : new int[]{0, 1, delta.length / 2, delta.length - 1}) {
+            byte[] truncated = Arrays.copyOf(delta, length);
+            assertThrows(IllegalStateException.class, () -> BinaryDelta.apply(base, truncated), "Truncated to " + length);
+        }
+    }
+
+    @Test
+    void rejectsCorruptDelta() {
+        byte[] base = randomBytes(8192, 14);
+        byte[] delta = BinaryDelta.encode(base, base);
+
+        byte[] badOp = delta.clone();
+        badOp[2] = 9;
+        assertThrows(IllegalStateException.class, () -> BinaryDelta.apply(base, badOp));
+
+        // A copy reaching past the end of the base
+        byte[] shorterBase = Arrays.copyOf(base, 100);
+        assertThrows(IllegalStateException.class, () -> BinaryDelta.apply(shorterBase, delta));
+
+        // More bytes than the declared target length
+        byte[] overlong = concat(delta, new byte[]{2, 1, 0});
+        assertThrows(IllegalStateException.class, () -> BinaryDelta.apply(base, overlong));
+    }
+
+    private static byte[] assertRoundTrip(byte[] base, byte[] target) {
+        byte[] delta = BinaryDelta.encode(base, target);
+        assertArrayEquals(target, BinaryDelta.apply(base, delta));
+        return delta;
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,264 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class ChunkedUploadTest extends ApiTestSupport {
+
+    private static final int CHUNK = 1000;
+
+    private Account member;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        member = signUp(newTenant(), UserRole.MEMBER);
+        projectId = createProject(member, "Chunked uploads");
+    }
+
+    @Test
+    void resumesFromTheReportedChunks() throws Exception {
+        byte[] file = randomBytes(2500, 1);
+        String sessionId = createSession(file, sha256(file));
+
+        uploadChunk(sessionId, 0, slice(file, 0, CHUNK), 200);
+
+        JsonNode status = json(perform(get("/api/documents/uploads/" + sessionId), member, null, 200));
+        assertEquals(CHUNK, status.get("receivedBytes").asLong());
+        assertEquals(1, status.get("chunks").size());
+        assertEquals(0, status.get("chunks").get(0).get("offset").asLong());
+        assertEquals(sha256(slice(file, 0, CHUNK)), status.get("chunks").get(0).get("sha256").asText());
+
+        // The client resumes after the last acknowledged chunk
+        uploadChunk(sessionId, CHUNK, slice(file, CHUNK, 2 * CHUNK), 200);
+        uploadChunk(sessionId, 2 * CHUNK, slice(file, 2 * CHUNK, file.length), 200);
+
+        assertArrayEquals(file, download(complete(sessionId, 200)));
+        perform(get("/api/documents/uploads/" + sessionId), member, null, 404);
+    }
+
+    @Test
+    void acceptsChunksOutOfOrder() throws Exception {
+        byte[] file = randomBytes(3 * CHUNK, 2);
+        String sessionId = createSession(file, sha256(file));
+
+        uploadChunk(sessionId, 2 * CHUNK, slice(file, 2 * CHUNK, 3 * CHUNK), 200);
+        uploadChunk(sessionId, 0, slice(file, 0, CHUNK), 200);
+        uploadChunk(sessionId, CHUNK, slice(file, CHUNK, 2 * CHUNK), 200);
+
+        assertArrayEquals(file, download(complete(sessionId, 200)));
+    }
+
+    @Test
+    void rejectsChunkWithWrongChecksum() throws Exception {
+        byte[] file = randomBytes(CHUNK, 3);
+        String sessionId = createSession(file, sha256(file));
+
+        perform(put("/api/documents/uploads/" + sessionId + "/chunks/0")
+                .header("X-Chunk-SHA256", sha256(new byte[]{1}))
+                .content(file), member, null, 400);
+
+        JsonNode status = json(perform(get("/api/documents/uploads/" + sessionId), member, null, 200));
+        assertEquals(0, status.get("receivedBytes").asLong());
+    }
+
+    @Test
+    void rejectsFileWithWrongChecksum() throws Exception {
+        byte[] file = randomBytes(CHUNK, 4);
+        String sessionId = createSession(file, sha256(randomBytes(CHUNK, 5)));
+
+        uploadChunk(sessionId, 0, file, 200);
+        complete(sessionId, 422);
+
+        // The session stays open so the client can replace the bad chunk
+        perform(get("/api/documents/uploads/" + sessionId), member, null, 200);
+    }
+
+    @Test
+    void rejectsCompletionWithMissingChunks() throws Exception {
+        byte[] file = randomBytes(2 * CHUNK, 6);
+        String sessionId = createSession(file, sha256(file));
+
+        uploadChunk(sessionId, CHUNK, slice(file, CHUNK, 2 * CHUNK), 200);
+        complete(sessionId, 409);
+    }
+
+    @Test
+    void rejectsFileOverTheSizeLimit() throws Exception {
+        perform(post("/api/projects/" + projectId + "/documents/uploads"), member, Map.of(
+                "title", "Too large", "fileName", "large.bin", "totalSize", 1L << 40), 413);
+    }
+
+    @Test
+    void resendingAnOffsetReplacesTheChunk() throws Exception {
+        byte[] file = randomBytes(CHUNK, 7);
+        String sessionId = createSession(file, sha256(file));
+
+        uploadChunk(sessionId, 0, randomBytes(CHUNK, 8), 200);
+        uploadChunk(sessionId, 0, file, 200);
+
+        JsonNode status = json(perform(get("/api/documents/uploads/" + sessionId), member, null, 200));
+        assertEquals(1, status.get("chunks").size());
+        assertEquals(sha256(file), status.get("chunks").get(0).get("sha256").asText());
+        assertArrayEquals(file, download(complete(sessionId, 200)));
+    }
+
+    @Test
+    void concurrentUploadsOfOneOffsetLeaveOneChunk() throws Exception {
+        byte[] file = randomBytes(CHUNK, 9);
+        String sessionId = createSession(file, sha256(file));
+
+        int clients = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                byte[] content = i == 0 ? file : randomBytes(CHUNK, 10 + i);
+                Callable<Integer> upload = () -> {
+                    start.await();
+                    return mvc.perform(withToken(put("/api/documents/uploads/" + sessionId + "/chunks/0").content(content)))
+                            .andReturn().getResponse().getStatus();
+                };
+                statuses.add(pool.submit(upload));
+            }
+            start.countDown();
+            for (Future<Integer> status : statuses) {
+                assertTrue(Set.of(200, 409).contains(status.get()), "Unexpected status " + status.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        JsonNode status = json(perform(get("/api/documents/uploads/" + sessionId), member, null, 200));
+        assertEquals(1, status.get("chunks").size());
+        assertEquals(CHUNK, status.get("receivedBytes").asLong());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from upload_chunks where session_id = ?", Integer.class, sessionId));
+
+        // One write survived whole; re-sending the real bytes replaces it as usual
+        uploadChunk(sessionId, 0, file, 200);
+        assertArrayEquals(file, download(complete(sessionId, 200)));
+    }
+
+    @Test
+    void chunkOverlappingAnotherOffsetIsRefused() throws Exception {
+        byte[] file = randomBytes(3 * CHUNK, 21);
+        String sessionId = createSession(file, sha256(file));
+        uploadChunk(sessionId, 0, slice(file, 0, CHUNK), 200);
+        uploadChunk(sessionId, 2 * CHUNK, slice(file, 2 * CHUNK, 3 * CHUNK), 200);
+
+        // Overlaps the end of the first chunk, then the start of the last one
+        uploadChunk(sessionId, CHUNK / 2, slice(file, CHUNK / 2, CHUNK / 2 + CHUNK), 409);
+        uploadChunk(sessionId, CHUNK, slice(file, CHUNK, 2 * CHUNK + 1), 409);
+
+        JsonNode status = json(perform(get("/api/documents/uploads/" + sessionId), member, null, 200));
+        assertEquals(2, status.get("chunks").size());
+        assertEquals(2 * CHUNK, status.get("receivedBytes").asLong());
+
+        // The gap itself still takes its chunk
+        uploadChunk(sessionId, CHUNK, slice(file, CHUNK, 2 * CHUNK), 200);
+        assertArrayEquals(file, download(complete(sessionId, 200)));
+    }
+
+    @Test
+    void expiredSessionIsGone() throws Exception {
+        byte[] file = randomBytes(2 * CHUNK, 22);
+        String sessionId = createSession(file, sha256(file));
+        uploadChunk(sessionId, 0, slice(file, 0, CHUNK), 200);
+        uploadChunk(sessionId, CHUNK, slice(file, CHUNK, 2 * CHUNK), 200);
+
+        // Expired, but not yet deleted by the cleanup job
+        jdbcTemplate.update("update upload_sessions set expires_at = ? where id = ?",
+                LocalDateTime.now().minusMinutes(1), sessionId);
+
+        perform(get("/api/documents/uploads/" + sessionId), member, null, 404);
+        uploadChunk(sessionId, 0, slice(file, 0, CHUNK), 404);
+        complete(sessionId, 404);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from documents where project_id = ?", Integer.class, projectId));
+    }
+
+    @Test
+    void completingAKnownFileStoresAReference() throws Exception {
+        byte[] file = randomBytes(2 * CHUNK, 20);
+        String originalId = uploadDocument(member, projectId, "chunked.bin", file);
+        String sessionId = createSession(file, sha256(file));
+
+        uploadChunk(sessionId, 0, slice(file, 0, CHUNK), 200);
+        uploadChunk(sessionId, CHUNK, slice(file, CHUNK, 2 * CHUNK), 200);
+        MvcResult completed = complete(sessionId, 200);
+
+        String documentId = json(completed).get("id").asText();
+        assertEquals(originalId, jdbcTemplate.queryForObject(
+                "select content_ref_id from documents where id = ?", String.class, documentId));
+        assertArrayEquals(file, download(completed));
+    }
+
+    private String createSession(byte[] file, String sha256) throws Exception {
+        return json(perform(post("/api/projects/" + projectId + "/documents/uploads"), member, Map.of(
+                "title", "Chunked", "fileName", "chunked.bin", "totalSize", file.length, "sha256", sha256), 200))
+                .get("id").asText();
+    }
+
+    private void uploadChunk(String sessionId, long offset, byte[] content, int expectedStatus) throws Exception {
+        perform(put("/api/documents/uploads/" + sessionId + "/chunks/" + offset)
+                .header("X-Chunk-SHA256", sha256(content))
+                .content(content), member, null, expectedStatus);
+    }
+
+    private MvcResult complete(String sessionId, int expectedStatus) throws Exception {
+        return perform(post("/api/documents/uploads/" + sessionId + "/complete"), member, null, expectedStatus);
+    }
+
+    private byte[] download(MvcResult completed) throws Exception {
+        String documentId = json(completed).get("id").asText();
+        return perform(get("/api/documents/" + documentId + "/download"), member, null, 200)
+                .getResponse().getContentAsByteArray();
+    }
+
+    private MockHttpServletRequestBuilder withToken(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + member.token());
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] slice(byte[] bytes, int from, int to) {
+        return Arrays.copyOfRange(bytes, from, to);
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
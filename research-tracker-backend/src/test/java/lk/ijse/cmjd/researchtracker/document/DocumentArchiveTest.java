@@ -0,0 +1,134 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DocumentArchive archive;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (archive != null) {
+            archive.close();
+        }
+    }
+
+    @Test
+    void readsBackWhatWasAppended() throws Exception {
+        archive = newArchive(DataSize.ofMegabytes(1));
+        byte[] first = randomBytes(10_000, 1);
+        byte[] second = new byte[20_000];
+        byte[] empty = new byte[0];
+
+        Document firstDocument = archived("a", archive.append("a", first));
+        Document secondDocument = archived("b", archive.append("b", second));
+        Document emptyDocument = archived("c", archive.append("c", empty));
+        archive.sync();
+
+        assertArrayEquals(first, archive.read(firstDocument));
+        assertArrayEquals(second, archive.read(secondDocument));
+        assertArrayEquals(empty, archive.read(emptyDocument));
+        // Compressible content takes less space than it did in the row
+        assertTrue(secondDocument.getArchiveLength() < second.length);
+        assertEquals(3, meterRegistry.get("documents.archive.restore").timer().count());
+    }
+
+    @Test
+    void startsANewPackAtTheSizeLimit() throws Exception {
+        archive = newArchive(DataSize.ofBytes(15_000));
+        byte[] first = randomBytes(10_000, 2);
+        byte[] second = randomBytes(10_000, 3);
+
+        Document firstDocument = archived("a", archive.append("a", first));
+        Document secondDocument = archived("b", archive.append("b", second));
+        archive.sync();
+
+        assertNotEquals(firstDocument.getArchivePack(), secondDocument.getArchivePack());
+        assertEquals(0, secondDocument.getArchiveOffset());
+        assertArrayEquals(first, archive.read(firstDocument));
+        assertArrayEquals(second, archive.read(secondDocument));
+        assertEquals(firstDocument.getArchiveLength() + secondDocument.getArchiveLength(),
+                meterRegistry.get("documents.tier.size").tag("tier", "archive").gauge().value());
+    }
+
+    @Test
+    void rejectsAnEntryOfAnotherDocument() throws Exception {
+        archive = newArchive(DataSize.ofMegabytes(1));
+        Document stored = archived("a", archive.append("a", randomBytes(1000, 4)));
+        archive.sync();
+
+        Document other = archived("b", new DocumentArchive.Location(
+                stored.getArchivePack(), stored.getArchiveOffset(), stored.getArchiveLength()));
+
+        assertThrows(UncheckedIOException.class, () -> archive.read(other));
+    }
+
+    @Test
+    void rejectsACorruptEntry() throws Exception {
+        archive = newArchive(DataSize.ofMegabytes(1));
+        Document stored = archived("a", archive.append("a", randomBytes(1000, 6)));
+        archive.sync();
+
+        try (RandomAccessFile pack = new RandomAccessFile(directory.resolve(stored.getArchivePack()).toFile(), "rw")) {
+            // Incompressible bytes are deflated as stored blocks, so only the stream's checksum catches this
+            long position = stored.getArchiveOffset() + stored.getArchiveLength() / 2;
+            pack.seek(position);
+            int value = pack.read();
+            pack.seek(position);
+            pack.write(value ^ 0xFF);
+        }
+
+        assertThrows(UncheckedIOException.class, () -> archive.read(stored));
+    }
+
+    @Test
+    void rejectsATruncatedPack() throws Exception {
+        archive = newArchive(DataSize.ofMegabytes(1));
+        Document stored = archived("a", archive.append("a", randomBytes(1000, 5)));
+        archive.sync();
+
+        try (RandomAccessFile pack = new RandomAccessFile(directory.resolve(stored.getArchivePack()).toFile(), "rw")) {
+            pack.setLength(stored.getArchiveLength() / 2);
+        }
+
+        assertThrows(UncheckedIOException.class, () -> archive.read(stored));
+    }
+
+    private DocumentArchive newArchive(DataSize maxPackSize) {
+        return new DocumentArchive(directory.toString(), maxPackSize, meterRegistry);
+    }
+
+    private static Document archived(String id, DocumentArchive.Location location) {
+        return Document.builder()
+                .id(id)
+                .archivePack(location.pack())
+                .archiveOffset(location.offset())
+                .archiveLength(location.length())
+                .build();
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
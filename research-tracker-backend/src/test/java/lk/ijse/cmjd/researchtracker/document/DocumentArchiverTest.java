@@ -0,0 +1,184 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.project.ProjectRepository;
+import lk.ijse.cmjd.researchtracker.project.Status;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+class DocumentArchiverTest extends ApiTestSupport {
+
+    // Longer than any test project has been completed for, so only the ones backdated here qualify
+    private static final Duration COMPLETED_AFTER = Duration.ofDays(365);
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private DocumentArchive archive;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DocumentArchiver archiver;
+    private Account pi;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // A small batch, so a run takes several
+        archiver = new DocumentArchiver(documentRepository, projectRepository, archive, transactionManager,
+                meterRegistry, true, COMPLETED_AFTER, 2);
+        pi = signUp(newTenant(), UserRole.PI);
+        projectId = createProject(pi, "Archived");
+    }
+
+    @Test
+    void archivesLongCompletedProjectsAndDownloadsFromTheArchive() throws Exception {
+        byte[] first = randomBytes(5000, 1);
+        byte[] second = randomBytes(5000, 2);
+        byte[] third = randomBytes(5000, 3);
+        String firstId = uploadDocument(pi, projectId, "first.bin", first);
+        String secondId = uploadDocument(pi, projectId, "second.bin", second);
+        String thirdId = uploadDocument(pi, projectId, "third.bin", third);
+        String recentProjectId = createProject(pi, "Recently completed");
+        String recentId = uploadDocument(pi, recentProjectId, "recent.bin", randomBytes(5000, 4));
+        complete(recentProjectId, LocalDateTime.now());
+        archiver.run();
+        double databaseBytes = databaseTierSize();
+        complete(projectId, LocalDateTime.now().minusYears(2));
+
+        archiver.run();
+
+        for (String id : new String[]{firstId, secondId, thirdId}) {
+            assertNull(storedContent(id));
+            assertNotNull(archivePack(id));
+        }
+        assertNotNull(storedContent(recentId));
+        assertTrue(documentsArchived(projectId));
+        assertFalse(documentsArchived(recentProjectId));
+        assertEquals(3, meterRegistry.get("documents.archive.moved").tag("direction", "archive").counter().count());
+        assertEquals(databaseBytes - first.length - second.length - third.length, databaseTierSize());
+
+        assertArrayEquals(first, download(firstId));
+        assertArrayEquals(second, download(secondId));
+        assertArrayEquals(third, download(thirdId));
+    }
+
+    @Test
+    void archivesDeltaVersionsAndRebuildsThem() throws Exception {
+        byte[] first = randomBytes(20_000, 5);
+        byte[] second = first.clone();
+        second[100] ^= 1;
+        String firstId = uploadDocument(pi, projectId, "report.bin", first);
+        String secondId = json(perform(multipart("/api/documents/" + firstId + "/versions")
+                .file(new MockMultipartFile("file", "report.bin", "application/octet-stream", second)), pi, null, 200))
+                .get("id").asText();
+        complete(projectId, LocalDateTime.now().minusYears(2));
+
+        archiver.run();
+
+        assertNotNull(archivePack(firstId));
+        assertNotNull(archivePack(secondId));
+        assertArrayEquals(first, download(firstId));
+        assertArrayEquals(second, download(secondId));
+    }
+
+    @Test
+    void restoresDocumentsWhenTheProjectIsReopened() throws Exception {
+        byte[] content = randomBytes(5000, 6);
+        String documentId = uploadDocument(pi, projectId, "dataset.bin", content);
+        complete(projectId, LocalDateTime.now().minusYears(2));
+        archiver.run();
+        assertNotNull(archivePack(documentId));
+
+        perform(patch("/api/projects/" + projectId + "/status"), pi, Status.ACTIVE, 204);
+        archiver.run();
+
+        assertNull(archivePack(documentId));
+        assertArrayEquals(content, storedContent(documentId));
+        assertFalse(documentsArchived(projectId));
+        assertEquals(1, meterRegistry.get("documents.archive.moved").tag("direction", "restore").counter().count());
+        assertArrayEquals(content, download(documentId));
+    }
+
+    @Test
+    void deletingAnArchivedOriginalMovesItsBytesToTheHeir() throws Exception {
+        byte[] dataset = randomBytes(5000, 7);
+        String originalId = uploadDocument(pi, projectId, "dataset.bin", dataset);
+        String activeProjectId = createProject(pi, "Still active");
+        String copyId = uploadDocument(pi, activeProjectId, "dataset.bin", dataset);
+        assertEquals(originalId, contentRefId(copyId));
+        complete(projectId, LocalDateTime.now().minusYears(2));
+        archiver.run();
+        assertNotNull(archivePack(originalId));
+        assertArrayEquals(dataset, download(copyId));
+
+        perform(delete("/api/documents/" + originalId), pi, null, 204);
+
+        assertNull(contentRefId(copyId));
+        assertNull(archivePack(copyId));
+        assertArrayEquals(dataset, storedContent(copyId));
+        assertArrayEquals(dataset, download(copyId));
+    }
+
+    private void complete(String id, LocalDateTime completedAt) throws Exception {
+        perform(patch("/api/projects/" + id + "/status"), pi, Status.COMPLETED, 204);
+        jdbcTemplate.update("update projects set completed_at = ? where id = ?", completedAt, id);
+    }
+
+    private double databaseTierSize() {
+        return meterRegistry.get("documents.tier.size").tag("tier", "database").gauge().value();
+    }
+
+    private byte[] storedContent(String documentId) {
+        return jdbcTemplate.queryForObject("select content from documents where id = ?", byte[].class, documentId);
+    }
+
+    private String archivePack(String documentId) {
+        return jdbcTemplate.queryForObject("select archive_pack from documents where id = ?", String.class, documentId);
+    }
+
+    private String contentRefId(String documentId) {
+        return jdbcTemplate.queryForObject("select content_ref_id from documents where id = ?", String.class, documentId);
+    }
+
+    private boolean documentsArchived(String id) {
+        return jdbcTemplate.queryForObject("select documents_archived from projects where id = ?", Boolean.class, id);
+    }
+
+    private byte[] download(String documentId) throws Exception {
+        return perform(get("/api/documents/" + documentId + "/download"), pi, null, 200)
+                .getResponse().getContentAsByteArray();
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
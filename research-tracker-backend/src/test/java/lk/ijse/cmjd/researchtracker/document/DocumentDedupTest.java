@@ -0,0 +1,152 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class DocumentDedupTest extends ApiTestSupport {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Account member;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        member = signUp(newTenant(), UserRole.MEMBER);
+        projectId = createProject(member, "Dedup");
+    }
+
+    @Test
+    void preCheckCreatesAReferenceWithoutTheBytes() throws Exception {
+        byte[] dataset = randomBytes(5000, 1);
+        String originalId = uploadDocument(member, projectId, "dataset.bin", dataset);
+        String otherProjectId = createProject(member, "Dedup elsewhere");
+        double savedBefore = savedBytes("pre-check");
+
+        JsonNode created = json(perform(post("/api/projects/" + otherProjectId + "/documents/by-hash"), member,
+                byHash(dataset, "dataset.bin"), 200));
+
+        String copyId = created.get("id").asText();
+        assertEquals(originalId, contentRefId(copyId));
+        assertNull(storedContent(copyId));
+        assertEquals(dataset.length, savedBytes("pre-check") - savedBefore);
+        assertArrayEquals(dataset, download(member, copyId));
+    }
+
+    @Test
+    void preCheckOfUnknownContentIsNotFound() throws Exception {
+        byte[] dataset = randomBytes(5000, 2);
+        uploadDocument(member, projectId, "dataset.bin", dataset);
+
+        perform(post("/api/projects/" + projectId + "/documents/by-hash"), member,
+                byHash(randomBytes(5000, 3), "other.bin"), 404);
+
+        // A hash match alone is not enough; the size has to match too
+        Map<String, Object> wrongSize = byHash(dataset, "dataset.bin");
+        wrongSize.put("fileSize", dataset.length + 1);
+        perform(post("/api/projects/" + projectId + "/documents/by-hash"), member, wrongSize, 404);
+    }
+
+    @Test
+    void preCheckOnlyMatchesTheCallersTenant() throws Exception {
+        byte[] dataset = randomBytes(5000, 4);
+        uploadDocument(member, projectId, "dataset.bin", dataset);
+        Account outsider = signUp(newTenant(), UserRole.MEMBER);
+        String outsiderProjectId = createProject(outsider, "Other institution");
+
+        perform(post("/api/projects/" + outsiderProjectId + "/documents/by-hash"), outsider,
+                byHash(dataset, "dataset.bin"), 404);
+
+        // Uploading the same bytes in another tenant stores them again
+        String outsiderCopyId = uploadDocument(outsider, outsiderProjectId, "dataset.bin", dataset);
+        assertNull(contentRefId(outsiderCopyId));
+        assertNotNull(storedContent(outsiderCopyId));
+    }
+
+    @Test
+    void identicalUploadIsStoredOnce() throws Exception {
+        byte[] dataset = randomBytes(5000, 5);
+        String originalId = uploadDocument(member, projectId, "dataset.bin", dataset);
+        double savedBefore = savedBytes("upload");
+
+        String copyId = uploadDocument(member, projectId, "dataset-copy.bin", dataset);
+
+        assertEquals(originalId, contentRefId(copyId));
+        assertNull(storedContent(copyId));
+        assertEquals(dataset.length, savedBytes("upload") - savedBefore);
+        assertArrayEquals(dataset, download(member, copyId));
+    }
+
+    @Test
+    void deletingTheOriginalHandsTheBytesToAReference() throws Exception {
+        byte[] dataset = randomBytes(5000, 6);
+        String originalId = uploadDocument(member, projectId, "dataset.bin", dataset);
+        String firstCopyId = uploadDocument(member, projectId, "first-copy.bin", dataset);
+        String secondCopyId = uploadDocument(member, projectId, "second-copy.bin", dataset);
+
+        perform(delete("/api/documents/" + originalId), member, null, 204);
+
+        assertNull(contentRefId(firstCopyId));
+        assertArrayEquals(dataset, storedContent(firstCopyId));
+        assertEquals(firstCopyId, contentRefId(secondCopyId));
+        assertArrayEquals(dataset, download(member, firstCopyId));
+        assertArrayEquals(dataset, download(member, secondCopyId));
+    }
+
+    private Map<String, Object> byHash(byte[] content, String fileName) throws Exception {
+        Map<String, Object> request = new HashMap<>();
+        request.put("title", fileName);
+        request.put("fileName", fileName);
+        request.put("fileSize", content.length);
+        // Clients may send the hash in either case
+        request.put("sha256", sha256(content).toUpperCase());
+        return request;
+    }
+
+    private String contentRefId(String documentId) {
+        return jdbcTemplate.queryForObject("select content_ref_id from documents where id = ?", String.class, documentId);
+    }
+
+    private byte[] storedContent(String documentId) {
+        return jdbcTemplate.queryForObject("select content from documents where id = ?", byte[].class, documentId);
+    }
+
+    private double savedBytes(String stage) {
+        return meterRegistry.get("documents.dedup.bytes-saved").tag("stage", stage).counter().count();
+    }
+
+    private byte[] download(Account account, String documentId) throws Exception {
+        return perform(get("/api/documents/" + documentId + "/download"), account, null, 200)
+                .getResponse().getContentAsByteArray();
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,183 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentPreviewServiceTest {
+
+    private final DocumentRepository documentRepository = mock(DocumentRepository.class);
+    private final DocumentPreviewRepository previewRepository = mock(DocumentPreviewRepository.class);
+    private final DocumentService documentService = mock(DocumentService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DocumentPreviewService service = new DocumentPreviewService(documentRepository, previewRepository,
+            documentService, new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, 1, 1,
+            DataSize.ofKilobytes(1));
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void handsOffToTheWorkerOnlyAfterCommit() {
+        givenTextDocument("a");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onDocumentUploaded(new DocumentUploadedEvent("a"));
+            verify(previewRepository).save(argThat(preview -> preview.getStatus() == PreviewStatus.PENDING));
+            verify(documentRepository, after(200).never()).findById(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(previewRepository, timeout(2000)).updateResult(argThat(preview -> "a".equals(preview.getDocumentId())
+                && preview.getStatus() == PreviewStatus.READY && "hello a".equals(preview.getExcerpt())));
+    }
+
+    @Test
+    void fullBacklogLeavesPreviewPendingForTheSweep() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Document blocking = givenTextDocument("a");
+        when(documentService.readContent(blocking)).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return "hello a".getBytes(StandardCharsets.UTF_8);
+        });
+        givenTextDocument("b");
+        givenTextDocument("c");
+
+        // One worker busy, one preview queued, the third does not fit
+        upload("a");
+        assertTrue(running.await(2, TimeUnit.SECONDS));
+        upload("b");
+        upload("c");
+
+        assertEquals(1, meterRegistry.counter("documents.preview.rejected").count());
+        verify(previewRepository, times(3)).save(argThat(preview -> preview.getStatus() == PreviewStatus.PENDING));
+        verify(previewRepository, never()).updateResult(argThat(preview -> preview.getStatus() == PreviewStatus.FAILED));
+
+        release.countDown();
+        verify(previewRepository, timeout(2000)).updateResult(argThat(preview -> "b".equals(preview.getDocumentId())
+                && preview.getStatus() == PreviewStatus.READY));
+        when(previewRepository.findIdsByStatus(eq(PreviewStatus.PENDING), any())).thenReturn(List.of("c"));
+        service.resubmitPending();
+
+        verify(previewRepository, timeout(2000)).updateResult(argThat(preview -> "c".equals(preview.getDocumentId())
+                && preview.getStatus() == PreviewStatus.READY));
+        verify(documentService, times(1)).readContent(blocking);
+    }
+
+    @Test
+    void sweepSkipsPreviewsAlreadyInFlight() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Document blocking = givenTextDocument("a");
+        when(documentService.readContent(blocking)).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return "hello a".getBytes(StandardCharsets.UTF_8);
+        });
+        upload("a");
+        assertTrue(running.await(2, TimeUnit.SECONDS));
+
+        when(previewRepository.findIdsByStatus(eq(PreviewStatus.PENDING), any())).thenReturn(List.of("a"));
+        service.resubmitPending();
+        release.countDown();
+
+        verify(previewRepository, timeout(2000)).updateResult(argThat(preview -> preview.getStatus() == PreviewStatus.READY));
+        verify(documentService, after(200).times(1)).readContent(blocking);
+    }
+
+    @Test
+    void failedGenerationMarksPreviewFailed() {
+        Document broken = givenTextDocument("a");
+        when(documentService.readContent(broken)).thenThrow(new IllegalStateException("Corrupt document delta"));
+
+        upload("a");
+
+        verify(previewRepository, timeout(2000)).updateResult(argThat(preview -> "a".equals(preview.getDocumentId())
+                && preview.getStatus() == PreviewStatus.FAILED));
+        assertEquals(1, meterRegistry.counter("documents.preview.failed").count());
+    }
+
+    @Test
+    void deletedDocumentGetsNoPreview() {
+        when(documentRepository.findById("a")).thenReturn(Optional.empty());
+
+        upload("a");
+
+        verify(documentRepository, timeout(2000)).findById("a");
+        verify(previewRepository, after(200).times(1)).save(any());
+        verify(previewRepository, never()).updateResult(any());
+    }
+
+    @Test
+    void largeDocumentIsSkippedWithoutReadingIt() {
+        Document large = givenTextDocument("a");
+        large.setFileSize(2048L);
+
+        upload("a");
+
+        verify(previewRepository, timeout(2000)).updateResult(argThat(preview -> "a".equals(preview.getDocumentId())
+                && preview.getStatus() == PreviewStatus.SKIPPED));
+        verify(documentService, never()).readContent(any());
+    }
+
+    @Test
+    void eventOutsideATransactionIsHandledStraightAway() {
+        givenTextDocument("a");
+
+        service.onDocumentUploaded(new DocumentUploadedEvent("a"));
+
+        verify(previewRepository).save(argThat(preview -> preview.getStatus() == PreviewStatus.PENDING));
+        verify(previewRepository, timeout(2000)).updateResult(argThat(preview -> "a".equals(preview.getDocumentId())
+                && preview.getStatus() == PreviewStatus.READY));
+    }
+
+    private Document givenTextDocument(String id) {
+        Document document = Document.builder().id(id).contentType("text/plain").build();
+        when(documentRepository.findById(id)).thenReturn(Optional.of(document));
+        when(documentService.readContent(document)).thenReturn(("hello " + id).getBytes(StandardCharsets.UTF_8));
+        return document;
+    }
+
+    // What the upload's transaction does: the listener runs before commit, the hand-off after it
+    private void upload(String documentId) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onDocumentUploaded(new DocumentUploadedEvent(documentId));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
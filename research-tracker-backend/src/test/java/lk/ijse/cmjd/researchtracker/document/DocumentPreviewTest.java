@@ -0,0 +1,75 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class DocumentPreviewTest extends ApiTestSupport {
+
+    @Autowired
+    private DocumentPreviewRepository previewRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Account member;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        member = signUp(newTenant(), UserRole.MEMBER);
+        projectId = createProject(member, "Previews");
+    }
+
+    @Test
+    void uploadGetsAnExcerpt() throws Exception {
+        String documentId = uploadDocument(member, projectId, "notes.txt", "Field notes".getBytes(StandardCharsets.UTF_8));
+
+        JsonNode preview = awaitPreview(documentId);
+
+        assertEquals("READY", preview.get("status").asText());
+        assertEquals("Field notes", preview.get("excerpt").asText());
+    }
+
+    @Test
+    void resultForADeletedDocumentIsNotWritten() throws Exception {
+        String documentId = uploadDocument(member, projectId, "notes.txt", "Field notes".getBytes(StandardCharsets.UTF_8));
+        awaitPreview(documentId);
+
+        perform(delete("/api/documents/" + documentId), member, null, 204);
+        // What a worker that was still generating the preview writes once it finishes
+        int updated = new TransactionTemplate(transactionManager).execute(status -> previewRepository.updateResult(
+                DocumentPreview.builder()
+                        .documentId(documentId)
+                        .status(PreviewStatus.READY)
+                        .generatedAt(LocalDateTime.now())
+                        .build()));
+
+        assertEquals(0, updated);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from document_previews where document_id = ?", Integer.class, documentId));
+    }
+
+    private JsonNode awaitPreview(String documentId) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            JsonNode preview = json(perform(get("/api/documents/" + documentId + "/preview"), member, null, 200));
+            if (!"PENDING".equals(preview.get("status").asText()) || System.nanoTime() - deadline > 0) {
+                return preview;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
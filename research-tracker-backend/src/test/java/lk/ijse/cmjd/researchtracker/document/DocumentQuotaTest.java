@@ -0,0 +1,206 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+@TestPropertySource(properties = {
+        "documents.quota.project-max-documents=4",
+        "documents.quota.project-max-size=10KB",
+        "documents.quota.user-max-documents=6",
+        "documents.quota.user-max-size=20KB"
+})
+class DocumentQuotaTest extends ApiTestSupport {
+
+    private String tenantId;
+    private Account member;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tenantId = newTenant();
+        member = signUp(tenantId, UserRole.MEMBER);
+        projectId = createProject(member, "Quota");
+    }
+
+    @Test
+    void projectDocumentLimitIsEnforcedAtTheBoundary() throws Exception {
+        String firstId = null;
+        for (int i = 0; i < 4; i++) {
+            String id = uploadDocument(member, projectId, "file-" + i + ".bin", randomBytes(100, i));
+            firstId = firstId == null ? id : firstId;
+        }
+
+        assertEquals(413, upload(projectId, randomBytes(100, 10)));
+        assertEquals(4, projectUsage("document_count"));
+
+        // Deleting a document frees its place
+        perform(delete("/api/documents/" + firstId), member, null, 204);
+        assertEquals(200, upload(projectId, randomBytes(100, 11)));
+    }
+
+    @Test
+    void projectSizeLimitIsEnforcedAtTheBoundary() throws Exception {
+        uploadDocument(member, projectId, "large.bin", randomBytes(6000, 1));
+        // Exactly 10KB in all
+        uploadDocument(member, projectId, "rest.bin", randomBytes(10 * 1024 - 6000, 2));
+
+        assertEquals(413, upload(projectId, randomBytes(1, 3)));
+        assertEquals(10 * 1024, projectUsage("document_bytes"));
+        assertEquals(2, projectUsage("document_count"));
+    }
+
+    @Test
+    void userLimitSpansProjects() throws Exception {
+        String secondProjectId = createProject(member, "Quota too");
+        String thirdProjectId = createProject(member, "Quota three");
+        for (int i = 0; i < 6; i++) {
+            uploadDocument(member, i < 3 ? projectId : secondProjectId, "file-" + i + ".bin", randomBytes(100, i));
+        }
+
+        assertEquals(413, upload(thirdProjectId, randomBytes(100, 10)));
+        assertEquals(6, jdbcTemplate.queryForObject(
+                "select document_count from users where id = ?", Integer.class, member.id()));
+    }
+
+    @Test
+    void countersFollowUploadsVersionsDuplicatesAndDeletes() throws Exception {
+        String otherProjectId = createProject(member, "Quota elsewhere");
+        byte[] dataset = randomBytes(1000, 1);
+        String originalId = uploadDocument(member, projectId, "dataset.bin", dataset);
+        // Duplicates count at their full size, although their bytes are stored once
+        uploadDocument(member, projectId, "dataset-copy.bin", dataset);
+        perform(post("/api/projects/" + otherProjectId + "/documents/by-hash"), member, Map.of(
+                "title", "dataset.bin", "fileName", "dataset.bin", "fileSize", dataset.length, "sha256", sha256(dataset)), 200);
+        perform(multipart("/api/documents/" + originalId + "/versions")
+                .file(new MockMultipartFile("file", "dataset.bin", "application/octet-stream", randomBytes(1200, 2))), member, null, 200);
+
+        JsonNode usage = usage();
+        assertEquals(List.of(3, 3200L), entry(usage.get("projects"), projectId));
+        assertEquals(List.of(1, 1000L), entry(usage.get("projects"), otherProjectId));
+        assertEquals(List.of(4, 4200L), entry(usage.get("users"), member.id()));
+
+        perform(delete("/api/documents/" + originalId), member, null, 204);
+
+        usage = usage();
+        assertEquals(List.of(2, 2200L), entry(usage.get("projects"), projectId));
+        assertEquals(List.of(3, 3200L), entry(usage.get("users"), member.id()));
+        assertEquals(4, usage.get("projectQuota").get("maxDocuments").asInt());
+        assertEquals(10 * 1024, usage.get("projectQuota").get("maxBytes").asLong());
+    }
+
+    @Test
+    void concurrentUploadsDoNotOvershootTheLimit() throws Exception {
+        int clients = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        int succeeded = 0;
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                byte[] content = randomBytes(100, i);
+                Callable<Integer> upload = () -> {
+                    start.await();
+                    return upload(projectId, content);
+                };
+                statuses.add(pool.submit(upload));
+            }
+            start.countDown();
+            for (Future<Integer> status : statuses) {
+                assertTrue(Set.of(200, 413).contains(status.get()), "Unexpected status " + status.get());
+                succeeded += status.get() == 200 ? 1 : 0;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(4, succeeded);
+        assertEquals(4, projectUsage("document_count"));
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "select count(*) from documents where project_id = ?", Integer.class, projectId));
+    }
+
+    @Test
+    void chunkedUploadIsCheckedAtCreationAndCompletion() throws Exception {
+        perform(post("/api/projects/" + projectId + "/documents/uploads"), member, Map.of(
+                "title", "Too large", "fileName", "large.bin", "totalSize", 20 * 1024), 413);
+
+        byte[] file = randomBytes(6000, 1);
+        String sessionId = json(perform(post("/api/projects/" + projectId + "/documents/uploads"), member, Map.of(
+                "title", "Chunked", "fileName", "chunked.bin", "totalSize", file.length, "sha256", sha256(file)), 200))
+                .get("id").asText();
+        perform(put("/api/documents/uploads/" + sessionId + "/chunks/0").content(file), member, null, 200);
+        // The project fills up while the chunks are being sent
+        uploadDocument(member, projectId, "meanwhile.bin", randomBytes(6000, 2));
+
+        perform(post("/api/documents/uploads/" + sessionId + "/complete"), member, null, 413);
+
+        assertEquals(1, projectUsage("document_count"));
+        assertEquals(6000, projectUsage("document_bytes"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from documents where project_id = ?", Integer.class, projectId));
+        // Nothing of the completion was kept, so the session is still there
+        perform(get("/api/documents/uploads/" + sessionId), member, null, 200);
+    }
+
+    private int upload(String projectId, byte[] content) throws Exception {
+        return mvc.perform(multipart("/api/projects/" + projectId + "/documents")
+                        .file(new MockMultipartFile("file", "file.bin", "application/octet-stream", content))
+                        .param("title", "file.bin")
+                        .param("description", "Uploaded by a test")
+                        .header("Authorization", "Bearer " + member.token()))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private long projectUsage(String column) {
+        return jdbcTemplate.queryForObject("select " + column + " from projects where id = ?", Long.class, projectId);
+    }
+
+    private JsonNode usage() throws Exception {
+        return json(perform(get("/api/admin/usage"), signUp(tenantId, UserRole.ADMIN), null, 200));
+    }
+
+    private static List<Object> entry(JsonNode entries, String id) {
+        for (JsonNode entry : entries) {
+            if (entry.get("id").asText().equals(id)) {
+                return List.of(entry.get("documentCount").asInt(), entry.get("documentBytes").asLong());
+            }
+        }
+        throw new AssertionError("No usage entry for " + id);
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,119 @@
+package lk.ijse.cmjd.researchtracker.document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+
+class DocumentVersionTest extends ApiTestSupport {
+
+    private Account member;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        member = signUp(newTenant(), UserRole.MEMBER);
+        projectId = createProject(member, "Versions");
+    }
+
+    @Test
+    void versionsAreStoredAsDeltasAndDownloadWhole() throws Exception {
+        byte[] first = randomBytes(20_000, 1);
+        byte[] second = first.clone();
+        second[5000] ^= 1;
+        byte[] third = new byte[second.length + 100];
+        System.arraycopy(second, 0, third, 0, second.length);
+
+        String firstId = uploadDocument(member, projectId, "report.bin", first);
+        String secondId = uploadVersion(firstId, second);
+        // Uploading against an old version still extends the chain from the head
+        String thirdId = uploadVersion(firstId, third);
+
+        JsonNode versions = json(perform(get("/api/documents/" + thirdId + "/versions"), member, null, 200));
+        assertEquals(3, versions.size());
+        Set<Integer> numbers = new HashSet<>();
+        for (JsonNode version : versions) {
+            numbers.add(version.get("versionNumber").asInt());
+            assertEquals(!version.get("id").asText().equals(firstId), version.get("delta").asBoolean());
+        }
+        assertEquals(Set.of(1, 2, 3), numbers);
+
+        assertArrayEquals(first, download(firstId));
+        assertArrayEquals(second, download(secondId));
+        assertArrayEquals(third, download(thirdId));
+    }
+
+    @Test
+    void concurrentVersionsOfOneHeadDoNotFork() throws Exception {
+        String documentId = uploadDocument(member, projectId, "report.bin", randomBytes(10_000, 2));
+
+        int clients = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        int succeeded = 0;
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                MockMultipartFile file = new MockMultipartFile("file", "report.bin", "application/octet-stream", randomBytes(10_000, 3 + i));
+                Callable<Integer> upload = () -> {
+                    start.await();
+                    return mvc.perform(multipart("/api/documents/" + documentId + "/versions").file(file)
+                                    .header("Authorization", "Bearer " + member.token()))
+                            .andReturn().getResponse().getStatus();
+                };
+                statuses.add(pool.submit(upload));
+            }
+            start.countDown();
+            for (Future<Integer> status : statuses) {
+                assertTrue(Set.of(200, 409).contains(status.get()), "Unexpected status " + status.get());
+                succeeded += status.get() == 200 ? 1 : 0;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        String groupId = jdbcTemplate.queryForObject("select version_group_id from documents where id = ?", String.class, documentId);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from documents where version_group_id = ? and superseded = false", Integer.class, groupId));
+        assertEquals(1 + succeeded, jdbcTemplate.queryForObject(
+                "select count(distinct version_number) from documents where version_group_id = ?", Integer.class, groupId));
+        assertEquals(1 + succeeded, jdbcTemplate.queryForObject(
+                "select count(*) from documents where version_group_id = ?", Integer.class, groupId));
+    }
+
+    private String uploadVersion(String documentId, byte[] content) throws Exception {
+        return json(perform(multipart("/api/documents/" + documentId + "/versions")
+                .file(new MockMultipartFile("file", "report.bin", "application/octet-stream", content)), member, null, 200))
+                .get("id").asText();
+    }
+
+    private byte[] download(String documentId) throws Exception {
+        return perform(get("/api/documents/" + documentId + "/download"), member, null, 200)
+                .getResponse().getContentAsByteArray();
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
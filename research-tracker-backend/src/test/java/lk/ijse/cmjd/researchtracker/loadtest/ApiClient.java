@@ -0,0 +1,118 @@
+package lk.ijse.cmjd.researchtracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * The calls the load test makes against the REST API, in the shapes the frontend sends them.
+ */
+class ApiClient {
+
+    private static final String BOUNDARY = "loadtest-boundary";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    HttpResponse<String> signup(String username, String password, String inviteCode) throws IOException, InterruptedException {
+        return post(null, "/api/auth/signup", Map.of(
+                "username", username, "password", password, "fullName", username, "inviteCode", inviteCode));
+    }
+
+    HttpResponse<String> login(String username, String password) throws IOException, InterruptedException {
+        return post(null, "/api/auth/login", Map.of("username", username, "password", password));
+    }
+
+    HttpResponse<String> createProject(String token, String title) throws IOException, InterruptedException {
+        return post(token, "/api/projects", Map.of(
+                "title", title,
+                "summary", "Load test project " + title,
+                "status", "ACTIVE",
+                "startDate", LocalDate.now().minusMonths(3).toString(),
+                "endDate", LocalDate.now().plusMonths(9).toString()));
+    }
+
+    HttpResponse<String> addMilestone(String token, String projectId, String title, LocalDate dueDate) throws IOException, InterruptedException {
+        return post(token, "/api/projects/" + projectId + "/milestones", Map.of(
+                "title", title, "description", "Load test milestone", "dueDate", dueDate.toString()));
+    }
+
+    HttpResponse<String> get(String token, String path) throws IOException, InterruptedException {
+        return http.send(request(token, path).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<Void> download(String token, String documentId) throws IOException, InterruptedException {
+        return http.send(request(token, "/api/documents/" + documentId + "/download").GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    HttpResponse<String> setMilestoneCompleted(String token, String milestoneId, boolean completed) throws IOException, InterruptedException {
+        return http.send(request(token, "/api/milestones/" + milestoneId + "/completed")
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(Boolean.toString(completed)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> uploadDocument(String token, String projectId, String title, byte[] content) throws IOException, InterruptedException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 512);
+        writeTo(body, part("title", null) + title + "\r\n");
+        writeTo(body, part("description", null) + "Load test document\r\n");
+        writeTo(body, part("file", title + ".bin"));
+        body.writeBytes(content);
+        writeTo(body, "\r\n--" + BOUNDARY + "--\r\n");
+        return http.send(request(token, "/api/projects/" + projectId + "/documents")
+                        .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> post(String token, String path, Map<String, String> body) throws IOException, InterruptedException {
+        return http.send(request(token, path)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String token, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static String part(String name, String fileName) {
+        String disposition = "Content-Disposition: form-data; name=\"" + name + "\""
+                + (fileName != null ? "; filename=\"" + fileName + "\"\r\nContent-Type: application/octet-stream" : "");
+        return "--" + BOUNDARY + "\r\n" + disposition + "\r\n\r\n";
+    }
+
+    private static void writeTo(ByteArrayOutputStream out, String text) {
+        out.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package lk.ijse.cmjd.researchtracker.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lk.ijse.cmjd.researchtracker.ResearchTrackerApplication;
+import lk.ijse.cmjd.researchtracker.tenant.TenantService;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long an API request holds a database connection compared with how long the request takes,
+ * with open-in-view on (Spring Boot's default) and with the prod profile, which runs with it off.
+ * Requests are sent one at a time to an application started on a random port against an in-memory
+ * database; connection time is Hikari's usage timer (checkout to return). Not a unit test; run it with
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=lk.ijse.cmjd.researchtracker.loadtest.ConnectionHoldBenchmark
+ * </pre>
+ */
+public class ConnectionHoldBenchmark {
+
+    private static final int PROJECTS = 200;
+    private static final int MILESTONES_PER_PROJECT = 5;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+    private static final String PASSWORD = "benchmark-password";
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-16s %-36s %12s %14s %14s %8s%n",
+                "mode", "request", "ms/request", "connections", "conn ms/req", "held");
+        run("open-in-view", "--spring.jpa.open-in-view=true");
+        run("prod profile", "--spring.profiles.active=prod");
+    }
+
+    private static void run(String mode, String argument) throws Exception {
+        SpringApplication application = new SpringApplication(ResearchTrackerApplication.class);
+        application.setDefaultProperties(Map.of("logging.level.root", "WARN"));
+        // The prod profile's Connector/J properties reach H2 too, which is told to ignore them
+        Map<String, Object> embedded = Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:hold-" + mode.replace(' ', '-')
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;IGNORE_UNKNOWN_SETTINGS=TRUE",
+                "spring.datasource.driver-class-name", "org.h2.Driver",
+                "spring.datasource.username", "sa",
+                "spring.datasource.password", "",
+                "server.port", "0",
+                "tenants.rate-limit.requests-per-second", "1000000",
+                "tenants.rate-limit.burst", "1000000");
+        application.addInitializers(context -> context.getEnvironment().getPropertySources().addAfter(
+                StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME, new MapPropertySource("benchmark", embedded)));
+        try (ConfigurableApplicationContext context = application.run(argument)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            ApiClient api = new ApiClient("http://localhost:" + port);
+            String token = seed(api, context.getBean(TenantService.class));
+            String projectId = api.json(api.get(token, "/api/projects")).get(0).get("id").asText();
+
+            Timer usage = context.getBean(MeterRegistry.class).get("hikaricp.connections.usage").timer();
+            measure(mode, "GET /api/projects (" + PROJECTS + ")", api, token, "/api/projects", usage);
+            measure(mode, "GET /api/projects/{id}", api, token, "/api/projects/" + projectId, usage);
+            measure(mode, "GET /api/projects/{id}/milestones", api, token, "/api/projects/" + projectId + "/milestones", usage);
+        }
+    }
+
+    private static String seed(ApiClient api, TenantService tenantService) throws Exception {
+        String tenantId = tenantService.provision("Benchmark University").getId();
+        expectOk(api.signup("pi", PASSWORD, tenantService.createInvite(tenantId, UserRole.PI, "benchmark").code()));
+        String token = api.json(expectOk(api.login("pi", PASSWORD))).get("token").asText();
+        for (int i = 0; i < PROJECTS; i++) {
+            String projectId = api.json(expectOk(api.createProject(token, "Project " + i))).get("id").asText();
+            for (int j = 0; j < MILESTONES_PER_PROJECT; j++) {
+                expectOk(api.addMilestone(token, projectId, "Milestone " + j, LocalDate.now().plusWeeks(j)));
+            }
+        }
+        return token;
+    }
+
+    private static void measure(String mode, String name, ApiClient api, String token, String path, Timer usage) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            expectOk(api.get(token, path));
+        }
+        long countBefore = usage.count();
+        double heldBefore = usage.totalTime(TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            expectOk(api.get(token, path));
+        }
+        double elapsed = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+        double held = (usage.totalTime(TimeUnit.MILLISECONDS) - heldBefore) / MEASURED_ROUNDS;
+        System.out.printf("%-16s %-36s %12.2f %14.1f %14.2f %7.0f%%%n", mode, name, elapsed,
+                (double) (usage.count() - countBefore) / MEASURED_ROUNDS, held, 100 * held / elapsed);
+    }
+
+    private static <T> HttpResponse<T> expectOk(HttpResponse<T> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                    + " returned " + response.statusCode());
+        }
+        return response;
+    }
+}
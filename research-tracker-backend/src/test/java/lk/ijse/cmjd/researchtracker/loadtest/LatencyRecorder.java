@@ -0,0 +1,49 @@
+package lk.ijse.cmjd.researchtracker.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and outcomes of one operation. Successful calls keep their latency for the percentiles;
+ * calls the server turned away (429 from the tenant rate limit, 503 from admission control) and
+ * failures are only counted.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int rejected;
+    private int failed;
+
+    synchronized void success(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    synchronized void rejected() {
+        rejected++;
+    }
+
+    synchronized void failed() {
+        failed++;
+    }
+
+    synchronized Summary summarize() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(count, rejected, failed,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                count > 0 ? sorted[count - 1] : 0);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    record Summary(int succeeded, int rejected, int failed, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+    }
+}
@@ -0,0 +1,396 @@
+package lk.ijse.cmjd.researchtracker.loadtest;
+
+import lk.ijse.cmjd.researchtracker.ResearchTrackerApplication;
+import lk.ijse.cmjd.researchtracker.tenant.TenantService;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts the application on a random port against an in-memory database, seeds it through the REST
+ * API and replays a mixed workload from a fixed number of virtual users, then reports throughput and
+ * latency percentiles per operation. Not a unit test; run it with
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.threads=32 -Dloadtest.duration=PT2M
+ * </pre>
+ * Seeding and workload are set with {@code -Dloadtest.*} system properties (see the constants below)
+ * and the operation mix with {@code -Dloadtest.mix.<operation>=<weight>}. Arguments after the main
+ * class are handed to the application, e.g. {@code -Dexec.args="--server.tomcat.threads.max=50"}.
+ * <p>
+ * The tenant rate limit is lifted by default so that it does not cap what the harness can measure;
+ * pass {@code --tenants.rate-limit.requests-per-second=50} to load the deployment as configured.
+ * Rejections (429 and 503) are reported separately from failures.
+ * <p>
+ * {@code -Dloadtest.flood-threads=<n>} adds that many clients downloading documents back to back
+ * alongside the virtual users, ignoring Retry-After as a misbehaving client would. They are reported
+ * on their own line. With transfers taken out of the users' mix, the report shows what a download
+ * flood does to everyone else:
+ * <pre>
+ * mvn -Ploadtest -DskipTests verify -Dloadtest.flood-threads=32 \
+ *     -Dloadtest.mix.upload-document=0 -Dloadtest.mix.download-document=0
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final int TENANTS = Integer.getInteger("loadtest.tenants", 4);
+    private static final int USERS = Integer.getInteger("loadtest.users", 40);
+    private static final int PROJECTS = Integer.getInteger("loadtest.projects", 100);
+    private static final int MILESTONES_PER_PROJECT = Integer.getInteger("loadtest.milestones-per-project", 5);
+    private static final int DOCUMENTS_PER_PROJECT = Integer.getInteger("loadtest.documents-per-project", 2);
+    private static final DataSize DOCUMENT_SIZE = DataSize.parse(System.getProperty("loadtest.document-size", "64KB"));
+    private static final int THREADS = Integer.getInteger("loadtest.threads", 16);
+    private static final int FLOOD_THREADS = Integer.getInteger("loadtest.flood-threads", 0);
+    private static final Duration THINK_TIME = Duration.parse(System.getProperty("loadtest.think-time", "PT0S"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+
+    private static final String PASSWORD = "load-test-password";
+
+    // Take precedence over application.properties, but not over arguments, system properties or the environment
+    private static final Map<String, Object> EMBEDDED_DEFAULTS = Map.of(
+            "spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name", "org.h2.Driver",
+            "spring.datasource.username", "sa",
+            "spring.datasource.password", "",
+            "server.port", "0",
+            "tenants.rate-limit.requests-per-second", "1000000",
+            "tenants.rate-limit.burst", "1000000");
+
+    public static void main(String[] args) throws Exception {
+        SpringApplication application = new SpringApplication(ResearchTrackerApplication.class);
+        // Logging is set up before initializers run, so this one goes in as a default
+        application.setDefaultProperties(Map.of("logging.level.root", "WARN"));
+        application.addInitializers(context -> context.getEnvironment().getPropertySources().addAfter(
+                StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME, new MapPropertySource("loadtest", EMBEDDED_DEFAULTS)));
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            ApiClient api = new ApiClient("http://localhost:" + port);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS + FLOOD_THREADS);
+            try {
+                long seedStart = System.nanoTime();
+                List<VirtualUser> users = seed(api, context.getBean(TenantService.class), executor);
+                System.out.printf("Seeded %d users, %d projects, %d milestones and %d documents of %d KB in %d tenants in %.1f s%n",
+                        USERS, PROJECTS, PROJECTS * MILESTONES_PER_PROJECT, PROJECTS * DOCUMENTS_PER_PROJECT,
+                        DOCUMENT_SIZE.toKilobytes(), TENANTS, (System.nanoTime() - seedStart) / 1e9);
+
+                replay(api, users, executor, WARMUP, null, null);
+                Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+                for (Operation operation : Operation.values()) {
+                    recorders.put(operation, new LatencyRecorder());
+                }
+                LatencyRecorder flood = new LatencyRecorder();
+                replay(api, users, executor, DURATION, recorders, flood);
+                report(recorders, flood);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Provisions the tenants and signs their users up through invites, the first user of each tenant
+     * as its PI, then creates the projects with milestones and documents.
+     */
+    private static List<VirtualUser> seed(ApiClient api, TenantService tenantService, ExecutorService executor) throws Exception {
+        if (USERS < TENANTS || PROJECTS < TENANTS) {
+            throw new IllegalArgumentException("Every tenant needs at least one user and one project");
+        }
+        List<Tenant> tenants = new ArrayList<>();
+        for (int i = 0; i < TENANTS; i++) {
+            tenants.add(new Tenant(tenantService.provision("Load Test Institute " + i).getId()));
+        }
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            VirtualUser user = new VirtualUser("loadtest-user-" + i, tenants.get(i % TENANTS));
+            if (i < TENANTS) {
+                user.tenant.pi = user;
+            }
+            users.add(user);
+        }
+        runAll(executor, users.stream().<Callable<Void>>map(user -> () -> {
+            String inviteCode = tenantService.createInvite(user.tenant.id,
+                    user.tenant.pi == user ? UserRole.PI : UserRole.MEMBER, "loadtest").code();
+            seedCall(() -> api.signup(user.username, PASSWORD, inviteCode), "sign up " + user.username);
+            user.token = api.json(seedCall(() -> api.login(user.username, PASSWORD), "log in " + user.username)).get("token").asText();
+            return null;
+        }).toList());
+
+        List<Callable<Void>> projects = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            Tenant tenant = tenants.get(i % TENANTS);
+            String title = "Load test project " + i;
+            projects.add(() -> {
+                String projectId = api.json(seedCall(() -> api.createProject(tenant.pi.token, title), "create " + title)).get("id").asText();
+                tenant.projects.add(projectId);
+                for (int m = 0; m < MILESTONES_PER_PROJECT; m++) {
+                    LocalDate dueDate = LocalDate.now().plusWeeks(m * 4L - 4);
+                    String milestoneTitle = title + " milestone " + m;
+                    HttpResponse<String> milestone = seedCall(() -> api.addMilestone(tenant.pi.token, projectId, milestoneTitle, dueDate),
+                            "add " + milestoneTitle);
+                    tenant.milestones.add(api.json(milestone).get("id").asText());
+                }
+                for (int d = 0; d < DOCUMENTS_PER_PROJECT; d++) {
+                    String documentTitle = title + " document " + d;
+                    HttpResponse<String> document = seedCall(() -> api.uploadDocument(tenant.pi.token, projectId, documentTitle, randomContent()),
+                            "upload " + documentTitle);
+                    tenant.documents.add(api.json(document).get("id").asText());
+                }
+                return null;
+            });
+        }
+        runAll(executor, projects);
+        return users;
+    }
+
+    /**
+     * Runs one closed-loop virtual user per thread for the given time, each issuing operations
+     * picked by weight, plus the flood clients. A user that is turned away waits as long as
+     * Retry-After asks, as the frontend would. Nothing is recorded when {@code recorders} is null
+     * (warm-up).
+     */
+    private static void replay(ApiClient api, List<VirtualUser> users, ExecutorService executor, Duration duration,
+                               Map<Operation, LatencyRecorder> recorders, LatencyRecorder floodRecorder) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Callable<Void>> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            VirtualUser user = users.get(i % users.size());
+            virtualUsers.add(() -> {
+                while (System.nanoTime() - deadline < 0) {
+                    Operation operation = pick();
+                    long start = System.nanoTime();
+                    HttpResponse<?> response;
+                    try {
+                        response = perform(api, user, operation);
+                    } catch (Exception e) {
+                        response = null;
+                    }
+                    long latency = System.nanoTime() - start;
+                    if (recorders != null) {
+                        record(recorders.get(operation), response, latency);
+                    }
+                    if (response != null && isRejection(response.statusCode())) {
+                        Thread.sleep(retryAfter(response).toMillis());
+                    } else if (!THINK_TIME.isZero()) {
+                        Thread.sleep(THINK_TIME.toMillis());
+                    }
+                }
+                return null;
+            });
+        }
+        for (int i = 0; i < FLOOD_THREADS; i++) {
+            VirtualUser user = users.get(i % users.size());
+            virtualUsers.add(() -> {
+                while (System.nanoTime() - deadline < 0) {
+                    long start = System.nanoTime();
+                    HttpResponse<?> response;
+                    try {
+                        response = api.download(user.token, randomOf(user.tenant.documents));
+                    } catch (Exception e) {
+                        response = null;
+                    }
+                    if (floodRecorder != null) {
+                        record(floodRecorder, response, System.nanoTime() - start);
+                    }
+                }
+                return null;
+            });
+        }
+        runAll(executor, virtualUsers);
+    }
+
+    private static Operation pick() {
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            total += operation.weight();
+        }
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights changed while picking");
+    }
+
+    /**
+     * Performs one user action and returns its response; for a page that takes several requests,
+     * the last one made, which is the first that did not succeed if any failed.
+     */
+    private static HttpResponse<?> perform(ApiClient api, VirtualUser user, Operation operation) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Tenant tenant = user.tenant;
+        switch (operation) {
+            case LOGIN -> {
+                HttpResponse<String> response = api.login(user.username, PASSWORD);
+                if (isSuccess(response.statusCode())) {
+                    user.token = api.json(response).get("token").asText();
+                }
+                return response;
+            }
+            case LIST_PROJECTS -> {
+                return api.get(user.token, "/api/projects");
+            }
+            case OPEN_PROJECT -> {
+                String projectId = randomOf(tenant.projects);
+                HttpResponse<String> response = null;
+                for (String path : List.of("", "/milestones", "/documents", "/activity")) {
+                    response = api.get(user.token, "/api/projects/" + projectId + path);
+                    if (!isSuccess(response.statusCode())) {
+                        break;
+                    }
+                }
+                return response;
+            }
+            case COMPLETE_MILESTONE -> {
+                return api.setMilestoneCompleted(user.token, randomOf(tenant.milestones), random.nextBoolean());
+            }
+            case UPLOAD_DOCUMENT -> {
+                HttpResponse<String> response = api.uploadDocument(user.token, randomOf(tenant.projects),
+                        "Uploaded by " + user.username, randomContent());
+                if (isSuccess(response.statusCode())) {
+                    tenant.documents.add(api.json(response).get("id").asText());
+                }
+                return response;
+            }
+            case DOWNLOAD_DOCUMENT -> {
+                return api.download(user.token, randomOf(tenant.documents));
+            }
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private static void record(LatencyRecorder recorder, HttpResponse<?> response, long latencyNanos) {
+        if (response != null && isSuccess(response.statusCode())) {
+            recorder.success(latencyNanos);
+        } else if (response != null && isRejection(response.statusCode())) {
+            recorder.rejected();
+        } else {
+            recorder.failed();
+        }
+    }
+
+    private static void report(Map<Operation, LatencyRecorder> recorders, LatencyRecorder flood) {
+        double seconds = DURATION.toNanos() / 1e9;
+        System.out.printf("%d virtual users, %d flood clients, think time %s, %.0f s measured after %.0f s warm-up%n",
+                THREADS, FLOOD_THREADS, THINK_TIME, seconds, WARMUP.toNanos() / 1e9);
+        System.out.printf("%-20s %9s %9s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "ok", "rejected", "failed", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        int succeeded = 0;
+        int rejected = 0;
+        int failed = 0;
+        for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder.Summary summary = entry.getValue().summarize();
+            succeeded += summary.succeeded();
+            rejected += summary.rejected();
+            failed += summary.failed();
+            printRow(entry.getKey().getKey(), summary, seconds);
+        }
+        System.out.printf("%-20s %9d %9d %9d %9.1f%n", "total", succeeded, rejected, failed, succeeded / seconds);
+        if (FLOOD_THREADS > 0) {
+            printRow("flood downloads", flood.summarize(), seconds);
+        }
+    }
+
+    private static void printRow(String name, LatencyRecorder.Summary summary, double seconds) {
+        System.out.printf("%-20s %9d %9d %9d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, summary.succeeded(), summary.rejected(), summary.failed(),
+                summary.succeeded() / seconds, millis(summary.p50Nanos()), millis(summary.p90Nanos()),
+                millis(summary.p99Nanos()), millis(summary.maxNanos()));
+    }
+
+    private static void runAll(ExecutorService executor, List<Callable<Void>> tasks) throws Exception {
+        List<Future<Void>> futures = executor.invokeAll(tasks);
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    /**
+     * Makes a seeding call, retrying it for as long as the server turns it away, and fails the run if
+     * it does not succeed.
+     */
+    private static HttpResponse<String> seedCall(ApiCall call, String action) throws Exception {
+        HttpResponse<String> response = call.send();
+        while (isRejection(response.statusCode())) {
+            Thread.sleep(retryAfter(response).toMillis());
+            response = call.send();
+        }
+        if (!isSuccess(response.statusCode())) {
+            throw new IllegalStateException("Could not " + action + ": HTTP " + response.statusCode() + " " + response.body());
+        }
+        return response;
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    // 429 from the tenant rate limit, 503 from admission control
+    private static boolean isRejection(int status) {
+        return status == 429 || status == 503;
+    }
+
+    private static Duration retryAfter(HttpResponse<?> response) {
+        return Duration.ofSeconds(response.headers().firstValueAsLong("Retry-After").orElse(1));
+    }
+
+    private static String randomOf(List<String> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static byte[] randomContent() {
+        byte[] content = new byte[(int) DOCUMENT_SIZE.toBytes()];
+        ThreadLocalRandom.current().nextBytes(content);
+        return content;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    @FunctionalInterface
+    private interface ApiCall {
+        HttpResponse<String> send() throws Exception;
+    }
+
+    private static final class Tenant {
+        private final String id;
+        private final List<String> projects = new CopyOnWriteArrayList<>();
+        private final List<String> milestones = new CopyOnWriteArrayList<>();
+        private final List<String> documents = new CopyOnWriteArrayList<>();
+        private volatile VirtualUser pi;
+
+        private Tenant(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final class VirtualUser {
+        private final String username;
+        private final Tenant tenant;
+        private volatile String token;
+
+        private VirtualUser(String username, Tenant tenant) {
+            this.username = username;
+            this.tenant = tenant;
+        }
+    }
+}
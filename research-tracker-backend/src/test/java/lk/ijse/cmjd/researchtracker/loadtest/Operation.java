@@ -0,0 +1,31 @@
+package lk.ijse.cmjd.researchtracker.loadtest;
+
+/**
+ * The user actions the load test replays, with their default share of the mix. A weight can be
+ * overridden with {@code -Dloadtest.mix.<key>=<weight>}; a weight of 0 leaves the action out.
+ */
+enum Operation {
+
+    LOGIN("login", 5),
+    LIST_PROJECTS("list-projects", 30),
+    OPEN_PROJECT("open-project", 25),
+    COMPLETE_MILESTONE("complete-milestone", 15),
+    UPLOAD_DOCUMENT("upload-document", 5),
+    DOWNLOAD_DOCUMENT("download-document", 20);
+
+    private final String key;
+    private final int defaultWeight;
+
+    Operation(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    int weight() {
+        return Integer.getInteger("loadtest.mix." + key, defaultWeight);
+    }
+}
@@ -0,0 +1,119 @@
+package lk.ijse.cmjd.researchtracker.milestone;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class MilestoneETagTest extends ApiTestSupport {
+
+    private Account member;
+    private String projectId;
+    private String milestoneId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        member = signUp(newTenant(), UserRole.MEMBER);
+        projectId = createProject(member, "Milestone tags");
+        milestoneId = json(perform(post("/api/projects/" + projectId + "/milestones"), member,
+                Map.of("title", "Draft", "dueDate", LocalDate.now().plusDays(7).toString()), 200)).get("id").asText();
+    }
+
+    @Test
+    void putReturnsTheNextETag() throws Exception {
+        String before = currentETag();
+
+        MvcResult updated = perform(put("/api/milestones/" + milestoneId).header(HttpHeaders.IF_MATCH, before),
+                member, Map.of("title", "Renamed"), 200);
+
+        String after = updated.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(before, after);
+        assertEquals(after, currentETag());
+        assertEquals(version(before) + 1, version(after));
+        assertEquals("Renamed", milestone().get("title").asText());
+    }
+
+    @Test
+    void patchReturnsTheNextETag() throws Exception {
+        String before = currentETag();
+
+        MvcResult patched = perform(patch("/api/milestones/" + milestoneId + "/completed").header(HttpHeaders.IF_MATCH, before),
+                member, true, 204);
+
+        String after = patched.getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(version(before) + 1, version(after));
+        assertEquals(after, currentETag());
+        assertTrue(milestone().get("completed").asBoolean());
+    }
+
+    @Test
+    void staleIfMatchIsRefused() throws Exception {
+        String stale = currentETag();
+        perform(put("/api/milestones/" + milestoneId).header(HttpHeaders.IF_MATCH, stale), member, Map.of("title", "First"), 200);
+
+        perform(put("/api/milestones/" + milestoneId).header(HttpHeaders.IF_MATCH, stale), member, Map.of("title", "Second"), 412);
+        perform(patch("/api/milestones/" + milestoneId + "/completed").header(HttpHeaders.IF_MATCH, stale), member, true, 412);
+        perform(put("/api/milestones/" + milestoneId).header(HttpHeaders.IF_MATCH, "\"not-a-version\""), member, Map.of("title", "Third"), 412);
+
+        JsonNode milestone = milestone();
+        assertEquals("First", milestone.get("title").asText());
+        assertFalse(milestone.get("completed").asBoolean());
+    }
+
+    @Test
+    void patchOfMissingMilestoneIsNotFound() throws Exception {
+        perform(patch("/api/milestones/no-such-milestone/completed"), member, true, 404);
+        perform(patch("/api/milestones/no-such-milestone/completed").header(HttpHeaders.IF_MATCH, "\"0\""), member, true, 404);
+        perform(put("/api/milestones/no-such-milestone").header(HttpHeaders.IF_MATCH, "\"0\""), member, Map.of("title", "Nowhere"), 404);
+    }
+
+    @Test
+    void requestsWithoutIfMatchAreUnconditional() throws Exception {
+        String before = currentETag();
+        MvcResult updated = perform(put("/api/milestones/" + milestoneId), member, Map.of("title", "Elsewhere"), 200);
+        // A PUT answers with the milestone, so its ETag is known either way
+        assertEquals(version(before) + 1, version(updated.getResponse().getHeader(HttpHeaders.ETAG)));
+
+        MvcResult patched = perform(patch("/api/milestones/" + milestoneId + "/completed"), member, true, 204);
+        // The new version is not known without reading it back
+        assertNull(patched.getResponse().getHeader(HttpHeaders.ETAG));
+
+        assertEquals(version(before) + 2, version(currentETag()));
+        perform(patch("/api/milestones/" + milestoneId + "/completed").header(HttpHeaders.IF_MATCH, "*"), member, false, 204);
+        assertFalse(milestone().get("completed").asBoolean());
+    }
+
+    // Milestones have no single-item GET; the project's list carries each one's version
+    private JsonNode milestone() throws Exception {
+        for (JsonNode milestone : json(perform(get("/api/projects/" + projectId + "/milestones"), member, null, 200))) {
+            if (milestone.get("id").asText().equals(milestoneId)) {
+                return milestone;
+            }
+        }
+        throw new AssertionError("No milestone " + milestoneId);
+    }
+
+    private String currentETag() throws Exception {
+        return "\"" + milestone().get("version").asLong() + "\"";
+    }
+
+    private static long version(String etag) {
+        return Long.parseLong(etag.substring(1, etag.length() - 1));
+    }
+}
@@ -0,0 +1,124 @@
+package lk.ijse.cmjd.researchtracker.milestone;
+
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class OverdueMilestoneTest extends ApiTestSupport {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private OverdueMilestoneScanner scanner;
+
+    @Autowired
+    private MilestoneService milestoneService;
+
+    private Account member;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        member = signUp(newTenant(), UserRole.MEMBER);
+        projectId = createProject(member, "Overdue");
+    }
+
+    @Test
+    void overdueCountIsNotTakenFromTheRequest() throws Exception {
+        String id = json(perform(post("/api/projects"), member,
+                Map.of("title", "Counted", "overdueMilestoneCount", 5), 200)).get("id").asText();
+        assertEquals(0, overdueCount(id));
+
+        perform(put("/api/projects/" + id), member, Map.of("title", "Counted", "overdueMilestoneCount", 7), 200);
+        assertEquals(0, overdueCount(id));
+    }
+
+    @Test
+    void scanFlagsMilestonesThatSlippedPastTheirDueDate() throws Exception {
+        String slipped = addMilestone(TODAY.minusDays(1));
+        String stillDue = addMilestone(TODAY.plusDays(1));
+        String completed = addMilestone(TODAY.minusDays(2));
+        perform(patch("/api/milestones/" + completed + "/completed"), member, true, 204);
+        // As if they were due in the future when created and the date has passed since
+        jdbcTemplate.update("update milestones set overdue = false where project_id = ?", projectId);
+        jdbcTemplate.update("update projects set overdue_milestone_count = 0 where id = ?", projectId);
+
+        scanner.scan();
+
+        assertTrue(isOverdue(slipped));
+        assertFalse(isOverdue(stillDue));
+        assertFalse(isOverdue(completed));
+        assertEquals(1, overdueCount(projectId));
+    }
+
+    @Test
+    void scanWorksThroughTheBacklogInBatches() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            addMilestone(TODAY.minusDays(1 + i));
+        }
+        jdbcTemplate.update("update milestones set overdue = false where project_id = ?", projectId);
+        jdbcTemplate.update("update projects set overdue_milestone_count = 0 where id = ?", projectId);
+
+        // Other tests' rows may be flagged here too, so only the totals of this project are checked
+        while (milestoneService.markNewlyOverdue(TODAY, 2) == 2) {
+            assertTrue(overdueCount(projectId) <= 5);
+        }
+        assertEquals(5, overdueCount(projectId));
+        assertEquals(0, milestoneService.markNewlyOverdue(TODAY, 2));
+    }
+
+    @Test
+    void countFollowsMilestoneChanges() throws Exception {
+        String first = addMilestone(TODAY.minusDays(3));
+        String second = addMilestone(TODAY.minusDays(1));
+        addMilestone(TODAY.plusDays(3));
+        assertEquals(2, overdueCount(projectId));
+
+        perform(patch("/api/milestones/" + first + "/completed"), member, true, 204);
+        assertEquals(1, overdueCount(projectId));
+
+        perform(patch("/api/milestones/" + first + "/completed"), member, false, 204);
+        assertEquals(2, overdueCount(projectId));
+
+        perform(put("/api/milestones/" + second), member, Map.of("dueDate", TODAY.plusDays(7).toString()), 200);
+        assertEquals(1, overdueCount(projectId));
+
+        perform(delete("/api/milestones/" + first), member, null, 204);
+        assertEquals(0, overdueCount(projectId));
+        assertEquals(List.of(), overdueIds());
+    }
+
+    private String addMilestone(LocalDate dueDate) throws Exception {
+        return json(perform(post("/api/projects/" + projectId + "/milestones"), member,
+                Map.of("title", "Due " + dueDate, "dueDate", dueDate.toString()), 200)).get("id").asText();
+    }
+
+    private int overdueCount(String id) throws Exception {
+        return json(perform(get("/api/projects/" + id), member, null, 200)).get("overdueMilestoneCount").asInt();
+    }
+
+    private boolean isOverdue(String milestoneId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select overdue from milestones where id = ?", Boolean.class, milestoneId));
+    }
+
+    private List<String> overdueIds() {
+        return jdbcTemplate.queryForList(
+                "select id from milestones where project_id = ? and overdue = true", String.class, projectId);
+    }
+}
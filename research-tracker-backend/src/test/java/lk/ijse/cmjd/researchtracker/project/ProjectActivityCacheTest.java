@@ -0,0 +1,106 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProjectActivityCacheTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final ProjectActivityCache cache = new ProjectActivityCache(3, 2, Duration.ofHours(1));
+
+    @Test
+    void appendOfAnEntryTheLoadAlreadyReadIsIgnored() {
+        ProjectActivityCache.Load load = cache.beginLoad("t", "p");
+        // Committed before the query ran, appended after the load completed
+        cache.completeLoad(load, List.of(activity(2), activity(1)), false);
+        cache.append(activity(2));
+
+        assertEquals(List.of(2L, 1L), ids(cache.get("t", "p")));
+    }
+
+    @Test
+    void writeDuringLoadDiscardsTheLoad() {
+        ProjectActivityCache.Load load = cache.beginLoad("t", "p");
+        cache.append(activity(3));
+        cache.completeLoad(load, List.of(activity(2), activity(1)), false);
+
+        assertNull(cache.get("t", "p"));
+
+        cache.completeLoad(cache.beginLoad("t", "p"), List.of(activity(3), activity(2), activity(1)), false);
+        assertEquals(List.of(3L, 2L, 1L), ids(cache.get("t", "p")));
+    }
+
+    @Test
+    void appendKeepsTheWindowSortedAndBounded() {
+        cache.completeLoad(cache.beginLoad("t", "p"), List.of(activity(4), activity(2)), false);
+
+        // Committed out of order
+        cache.append(activity(5));
+        cache.append(activity(3));
+
+        ProjectActivityCache.Snapshot window = cache.get("t", "p");
+        assertEquals(List.of(5L, 4L, 3L), ids(window));
+        assertTrue(window.hasOlder());
+    }
+
+    @Test
+    void appendToAProjectThatIsNotCachedIsIgnored() {
+        cache.append(activity(1));
+        assertNull(cache.get("t", "p"));
+    }
+
+    @Test
+    void leastRecentlyViewedProjectIsEvicted() {
+        cache.completeLoad(cache.beginLoad("t", "a"), List.of(), false);
+        cache.completeLoad(cache.beginLoad("t", "b"), List.of(), false);
+        cache.get("t", "a");
+        cache.completeLoad(cache.beginLoad("t", "c"), List.of(), false);
+
+        assertNotNull(cache.get("t", "a"));
+        assertNull(cache.get("t", "b"));
+        assertNotNull(cache.get("t", "c"));
+    }
+
+    @Test
+    void windowsAreKeptPerTenant() {
+        cache.completeLoad(cache.beginLoad("t", "p"), List.of(activity(1)), false);
+        assertNull(cache.get("other", "p"));
+    }
+
+    @Test
+    void expiredWindowIsReloaded() throws Exception {
+        ProjectActivityCache shortLived = new ProjectActivityCache(3, 2, Duration.ofMillis(50));
+        shortLived.completeLoad(shortLived.beginLoad("t", "p"), List.of(activity(1)), false);
+        assertNotNull(shortLived.get("t", "p"));
+
+        Thread.sleep(100);
+
+        assertNull(shortLived.get("t", "p"));
+        // Appends no longer go anywhere until the next load
+        shortLived.append(activity(2));
+        assertNull(shortLived.get("t", "p"));
+        shortLived.completeLoad(shortLived.beginLoad("t", "p"), List.of(activity(2), activity(1)), false);
+        ProjectActivityCache.Snapshot reloaded = shortLived.get("t", "p");
+        assertEquals(List.of(2L, 1L), ids(reloaded));
+        assertFalse(reloaded.hasOlder());
+    }
+
+    private static ProjectActivity activity(long id) {
+        return new ProjectActivity(id, "t", "p", START.plusSeconds(id), "alice", ActivityType.MILESTONE_ADDED,
+                "m" + id, "Milestone " + id, null);
+    }
+
+    private static List<Long> ids(ProjectActivityCache.Snapshot snapshot) {
+        return snapshot.entries().stream().map(ProjectActivity::id).toList();
+    }
+}
@@ -0,0 +1,99 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class ProjectActivityTest extends ApiTestSupport {
+
+    private Account pi;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pi = signUp(newTenant(), UserRole.PI);
+        projectId = createProject(pi, "Active");
+    }
+
+    @Test
+    void cursorPagesThroughTheWholeFeedNewestFirst() throws Exception {
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            added.add(addMilestone("Milestone " + i));
+        }
+
+        List<String> newestFirst = new ArrayList<>(added);
+        Collections.reverse(newestFirst);
+
+        for (int limit : new int[]{1, 3, 7, 20}) {
+            List<String> subjects = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                JsonNode page = page(cursor, limit);
+                assertTrue(page.get("activities").size() <= limit);
+                subjects.addAll(subjects(page));
+                cursor = page.get("next").isNull() ? null : page.get("next").asText();
+                pages++;
+            } while (cursor != null);
+
+            assertEquals(newestFirst, subjects, "limit " + limit);
+            assertEquals((added.size() + limit - 1) / limit, pages, "limit " + limit);
+        }
+    }
+
+    @Test
+    void cachedFirstPageFollowsNewActivity() throws Exception {
+        String first = addMilestone("First");
+        // Loads the window
+        assertEquals(List.of(first), subjects(page(null, 20)));
+
+        String second = addMilestone("Second");
+        perform(patch("/api/projects/" + projectId + "/status"), pi, Status.ACTIVE, 204);
+
+        JsonNode activities = page(null, 20).get("activities");
+        assertEquals(3, activities.size());
+        assertEquals("STATUS_CHANGED", activities.get(0).get("type").asText());
+        assertEquals("ACTIVE", activities.get(0).get("detail").asText());
+        assertEquals(second, activities.get(1).get("subjectId").asText());
+        assertEquals(first, activities.get(2).get("subjectId").asText());
+    }
+
+    @Test
+    void feedOfMissingProjectIsNotFound() throws Exception {
+        perform(get("/api/projects/no-such-project/activity"), pi, null, 404);
+    }
+
+    private String addMilestone(String title) throws Exception {
+        return json(perform(post("/api/projects/" + projectId + "/milestones"), pi,
+                Map.of("title", title, "dueDate", "2030-01-01"), 200)).get("id").asText();
+    }
+
+    private JsonNode page(String cursor, int limit) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/projects/" + projectId + "/activity").param("limit", String.valueOf(limit));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return json(perform(request, pi, null, 200));
+    }
+
+    private static List<String> subjects(JsonNode page) {
+        List<String> subjects = new ArrayList<>();
+        page.get("activities").forEach(activity -> subjects.add(activity.get("subjectId").asText()));
+        return subjects;
+    }
+}
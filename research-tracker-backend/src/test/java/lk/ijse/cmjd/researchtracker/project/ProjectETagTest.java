@@ -0,0 +1,95 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class ProjectETagTest extends ApiTestSupport {
+
+    private Account pi;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pi = signUp(newTenant(), UserRole.PI);
+        projectId = createProject(pi, "Tagged");
+    }
+
+    @Test
+    void putReturnsTheNextETag() throws Exception {
+        String before = currentETag();
+
+        MvcResult updated = perform(put("/api/projects/" + projectId).header(HttpHeaders.IF_MATCH, before),
+                pi, Map.of("title", "Renamed"), 200);
+
+        String after = updated.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(before, after);
+        assertEquals(after, currentETag());
+        assertEquals(version(before) + 1, version(after));
+    }
+
+    @Test
+    void patchReturnsTheNextETag() throws Exception {
+        String before = currentETag();
+
+        MvcResult patched = perform(patch("/api/projects/" + projectId + "/status").header(HttpHeaders.IF_MATCH, before),
+                pi, Status.ACTIVE, 204);
+
+        String after = patched.getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(version(before) + 1, version(after));
+        assertEquals(after, currentETag());
+        assertEquals("ACTIVE", json(perform(get("/api/projects/" + projectId), pi, null, 200)).get("status").asText());
+    }
+
+    @Test
+    void staleIfMatchIsRefused() throws Exception {
+        String stale = currentETag();
+        perform(put("/api/projects/" + projectId).header(HttpHeaders.IF_MATCH, stale), pi, Map.of("title", "First"), 200);
+
+        perform(put("/api/projects/" + projectId).header(HttpHeaders.IF_MATCH, stale), pi, Map.of("title", "Second"), 412);
+        perform(patch("/api/projects/" + projectId + "/status").header(HttpHeaders.IF_MATCH, stale), pi, Status.ON_HOLD, 412);
+        perform(put("/api/projects/" + projectId).header(HttpHeaders.IF_MATCH, "\"not-a-version\""), pi, Map.of("title", "Third"), 412);
+
+        assertEquals("First", json(perform(get("/api/projects/" + projectId), pi, null, 200)).get("title").asText());
+    }
+
+    @Test
+    void patchOfMissingProjectIsNotFound() throws Exception {
+        perform(patch("/api/projects/no-such-project/status"), pi, Status.ACTIVE, 404);
+        perform(patch("/api/projects/no-such-project/status").header(HttpHeaders.IF_MATCH, "\"0\""), pi, Status.ACTIVE, 404);
+    }
+
+    @Test
+    void requestsWithoutIfMatchAreUnconditional() throws Exception {
+        String before = currentETag();
+        perform(put("/api/projects/" + projectId), pi, Map.of("title", "Elsewhere"), 200);
+
+        MvcResult patched = perform(patch("/api/projects/" + projectId + "/status"), pi, Status.COMPLETED, 204);
+        // The new version is not known without reading it back
+        assertNull(patched.getResponse().getHeader(HttpHeaders.ETAG));
+
+        assertEquals(version(before) + 2, version(currentETag()));
+        perform(patch("/api/projects/" + projectId + "/status").header(HttpHeaders.IF_MATCH, "*"), pi, Status.ACTIVE, 204);
+        assertEquals("ACTIVE", json(perform(get("/api/projects/" + projectId), pi, null, 200)).get("status").asText());
+    }
+
+    private String currentETag() throws Exception {
+        return perform(get("/api/projects/" + projectId), pi, null, 200).getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static long version(String etag) {
+        return Long.parseLong(etag.substring(1, etag.length() - 1));
+    }
+}
@@ -0,0 +1,121 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import jakarta.persistence.EntityManager;
+import lk.ijse.cmjd.researchtracker.ResearchTrackerApplication;
+import lk.ijse.cmjd.researchtracker.user.UserCache;
+import lk.ijse.cmjd.researchtracker.user.UserRepository;
+import lk.ijse.cmjd.researchtracker.user.UserSummary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Statements, entities loaded and heap allocated to build the project list response for 500 projects
+ * led by 5 PIs: with the PI joined onto every project row, as the eager mapping did, and with PI ids
+ * resolved through {@link UserCache}, cold and warm. Not a unit test; run it with
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=lk.ijse.cmjd.researchtracker.project.ProjectListingBenchmark
+ * </pre>
+ */
+public class ProjectListingBenchmark {
+
+    private static final int PROJECTS = 500;
+    private static final int PIS = 5;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 200;
+
+    public static void main(String[] args) {
+        try (ConfigurableApplicationContext context = SpringApplication.run(ResearchTrackerApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:listing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.main.web-application-type=none",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.root=WARN")) {
+            seed(context.getBean(JdbcTemplate.class));
+
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            ProjectService projectService = context.getBean(ProjectService.class);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            UserCache warmCache = context.getBean(UserCache.class);
+            TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            Statistics statistics = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactory.class).getStatistics();
+
+            System.out.printf("%-40s %12s %12s %14s%n", "per listing of " + PROJECTS + " projects", "statements", "entities", "bytes allocated");
+            run("pi joined on every row (eager mapping)", statistics, () -> readOnly.execute(status ->
+                    entityManager.createQuery("select p from Project p left join fetch p.pi", Project.class).getResultList().stream()
+                            .map(project -> ProjectResponse.from(project, UserSummary.from(project.getPi())))
+                            .toList()));
+            run("pi by id, UserCache cold", statistics,
+                    () -> list(projectService, new UserCache(userRepository, 10_000)));
+            run("pi by id, UserCache warm", statistics, () -> list(projectService, warmCache));
+        }
+    }
+
+    // What ProjectController#getAllProjects does
+    private static List<ProjectResponse> list(ProjectService projectService, UserCache userCache) {
+        List<Project> projects = projectService.getAllProjects();
+        Map<String, UserSummary> pis = userCache.getAll(projects.stream()
+                .map(project -> project.getPi() != null ? project.getPi().getId() : null)
+                .filter(Objects::nonNull)
+                .toList());
+        return projects.stream().map(project -> ProjectResponse.from(project, pis.get(project.getPi().getId()))).toList();
+    }
+
+    private static void run(String name, Statistics statistics, Supplier<List<ProjectResponse>> listing) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            check(listing.get());
+        }
+        statistics.clear();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            check(listing.get());
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-40s %12.1f %12.1f %14d%n", name,
+                (double) statistics.getPrepareStatementCount() / MEASURED_ROUNDS,
+                (double) statistics.getEntityLoadCount() / MEASURED_ROUNDS,
+                allocated / MEASURED_ROUNDS);
+    }
+
+    private static void check(List<ProjectResponse> responses) {
+        if (responses.size() != PROJECTS || responses.stream().anyMatch(response -> response.getPi() == null)) {
+            throw new IllegalStateException("Listing did not return every project with its PI");
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < PIS; i++) {
+            jdbcTemplate.update("insert into users (id, username, password, full_name, role, created_at) values (?, ?, ?, ?, 'PI', ?)",
+                    "user-" + i, "pi" + i, "$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123",
+                    "Principal Investigator " + i, now);
+        }
+        for (int i = 0; i < PROJECTS; i++) {
+            jdbcTemplate.update("insert into projects (id, title, summary, status, pi_id, tags, start_date, end_date, "
+                            + "overdue_milestone_count, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)",
+                    String.format("00000000-0000-0000-0000-%012d", i), "Research project " + i,
+                    "Summary of research project " + i + " covering its aims, methods and expected outcomes.",
+                    Status.values()[i % Status.values().length].name(), "user-" + (i % PIS), "ml,health,survey",
+                    LocalDate.of(2024, 1, 1).plusDays(i % 365), LocalDate.of(2025, 1, 1).plusDays(i % 365),
+                    now.plusMinutes(i), now.plusMinutes(i));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lk.ijse.cmjd.researchtracker.common.SparseFields;
+import lk.ijse.cmjd.researchtracker.user.User;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import lk.ijse.cmjd.researchtracker.user.UserSummary;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bytes and CPU time to serialize a page of 1,000 projects in each of the response shapes the
+ * project list endpoint can produce. Not a unit test; run it with
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=lk.ijse.cmjd.researchtracker.project.ProjectSerializationBenchmark
+ * </pre>
+ */
+public class ProjectSerializationBenchmark {
+
+    private static final int PROJECTS = 1_000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    public static void main(String[] args) throws Exception {
+        List<Project> projects = projects();
+        List<ProjectResponse> responses = projects.stream()
+                .map(project -> ProjectResponse.from(project, UserSummary.from(project.getPi())))
+                .toList();
+
+        ObjectMapper json = mapper().build();
+        ObjectMapper cbor = mapper().factory(new CBORFactory()).build();
+        ObjectWriter sparse = json.writer(new SimpleFilterProvider()
+                .addFilter(SparseFields.FILTER, new SparseFields(Set.of("id", "title", "status"))));
+
+        System.out.printf("%-46s %12s %14s%n", "per 1,000 projects", "bytes", "CPU ms");
+        run("entity JSON (pi as User entity)", () -> json.writeValueAsBytes(projects));
+        run("ProjectResponse JSON", () -> json.writeValueAsBytes(responses));
+        run("ProjectResponse JSON fields=id,title,status", () -> sparse.writeValueAsBytes(responses));
+        run("ProjectResponse CBOR", () -> cbor.writeValueAsBytes(responses));
+    }
+
+    // Same settings Spring Boot applies to the application's mappers
+    private static Jackson2ObjectMapperBuilder mapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    private static void run(String name, Serialization serialization) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int bytes = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            bytes = serialization.serialize().length;
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            serialization.serialize();
+        }
+        double cpuMillis = (threads.getCurrentThreadCpuTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+        System.out.printf("%-46s %12d %14.3f%n", name, bytes, cpuMillis);
+    }
+
+    private static List<Project> projects() {
+        List<User> pis = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pis.add(User.builder()
+                    .id("user-" + i)
+                    .username("pi" + i)
+                    .password("$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123")
+                    .fullName("Principal Investigator " + i)
+                    .role(UserRole.PI)
+                    .tenantId("default")
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                    .build());
+        }
+        List<Project> projects = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            projects.add(Project.builder()
+                    .id(String.format("00000000-0000-0000-0000-%012d", i))
+                    .title("Research project " + i)
+                    .summary("Summary of research project " + i + " covering its aims, methods and expected outcomes.")
+                    .status(Status.values()[i % Status.values().length])
+                    .pi(pis.get(i % pis.size()))
+                    .tags("ml,health,survey")
+                    .startDate(LocalDate.of(2024, 1, 1).plusDays(i % 365))
+                    .endDate(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                    .overdueMilestoneCount(i % 3)
+                    .version(i % 7)
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(i))
+                    .updatedAt(LocalDateTime.of(2024, 6, 1, 9, 0).plusMinutes(i))
+                    .build());
+        }
+        return projects;
+    }
+
+    @FunctionalInterface
+    private interface Serialization {
+        byte[] serialize() throws Exception;
+    }
+}
@@ -0,0 +1,123 @@
+package lk.ijse.cmjd.researchtracker.project;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class ProjectSerializationTest extends ApiTestSupport {
+
+    // User entity fields that must never reach a client, under any fields= or media type
+    private static final Set<String> USER_INTERNALS = Set.of(
+            "password", "tenantId", "documentCount", "documentBytes", "authorities",
+            "accountNonExpired", "accountNonLocked", "credentialsNonExpired", "enabled");
+
+    private Account admin;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        admin = signUp(newTenant(), UserRole.ADMIN);
+        projectId = createProject(admin, "Serialized");
+        createProject(admin, "Serialized too");
+    }
+
+    @Test
+    void fieldsTrimsTheTopLevelKeys() throws Exception {
+        JsonNode project = json(perform(get("/api/projects/" + projectId).param("fields", "id,title"), admin, null, 200));
+        assertEquals(Set.of("id", "title"), keys(project));
+        assertEquals("Serialized", project.get("title").asText());
+
+        JsonNode projects = json(perform(get("/api/projects").param("fields", "id, status"), admin, null, 200));
+        assertEquals(2, projects.size());
+        for (JsonNode element : projects) {
+            assertEquals(Set.of("id", "status"), keys(element));
+        }
+
+        // A nested object is written whole
+        JsonNode withPi = json(perform(get("/api/projects/" + projectId).param("fields", "id,pi"), admin, null, 200));
+        assertEquals(Set.of("id", "pi"), keys(withPi));
+        assertEquals(Set.of("id", "username", "fullName", "role", "createdAt"), keys(withPi.get("pi")));
+    }
+
+    @Test
+    void unknownFieldsAreIgnored() throws Exception {
+        JsonNode project = json(perform(get("/api/projects/" + projectId).param("fields", "id,nonsense"), admin, null, 200));
+        assertEquals(Set.of("id"), keys(project));
+
+        JsonNode nothingKnown = json(perform(get("/api/projects/" + projectId).param("fields", "nonsense"), admin, null, 200));
+        assertEquals(Set.of(), keys(nothingKnown));
+
+        // An empty list is no filter at all
+        JsonNode whole = json(perform(get("/api/projects/" + projectId).param("fields", ""), admin, null, 200));
+        assertTrue(keys(whole).containsAll(Set.of("id", "title", "status", "pi", "version")));
+    }
+
+    @Test
+    void cborCarriesTheSameContentAsJson() throws Exception {
+        CBORMapper cborMapper = new CBORMapper();
+        for (String path : List.of("/api/projects/" + projectId, "/api/projects", "/api/users")) {
+            JsonNode asJson = json(perform(get(path), admin, null, 200));
+
+            MvcResult asCbor = perform(get(path).accept(MediaType.APPLICATION_CBOR), admin, null, 200);
+
+            assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(
+                    MediaType.parseMediaType(asCbor.getResponse().getHeader(HttpHeaders.CONTENT_TYPE))));
+            assertEquals(asJson.toString(), cborMapper.readTree(asCbor.getResponse().getContentAsByteArray()).toString(), path);
+        }
+
+        MvcResult trimmed = perform(get("/api/projects/" + projectId).param("fields", "id,title")
+                .accept(MediaType.APPLICATION_CBOR), admin, null, 200);
+        assertEquals(Set.of("id", "title"), keys(cborMapper.readTree(trimmed.getResponse().getContentAsByteArray())));
+    }
+
+    @Test
+    void userInternalsAreNeverWritten() throws Exception {
+        List<MvcResult> responses = List.of(
+                perform(get("/api/projects"), admin, null, 200),
+                perform(get("/api/projects/" + projectId), admin, null, 200),
+                perform(get("/api/users"), admin, null, 200),
+                perform(get("/api/users/" + admin.id()), admin, null, 200),
+                // Asking for them by name does not bring them back
+                perform(get("/api/users/" + admin.id()).param("fields", "id,password,tenantId,documentCount"), admin, null, 200));
+        String passwordHash = jdbcTemplate.queryForObject("select password from users where id = ?", String.class, admin.id());
+
+        for (MvcResult response : responses) {
+            Set<String> names = new HashSet<>();
+            collectFieldNames(json(response), names);
+            names.retainAll(USER_INTERNALS);
+            assertEquals(Set.of(), names, response.getRequest().getRequestURI());
+            assertFalse(response.getResponse().getContentAsString().contains(passwordHash));
+        }
+    }
+
+    private static Set<String> keys(JsonNode object) {
+        Set<String> keys = new HashSet<>();
+        object.fieldNames().forEachRemaining(keys::add);
+        return keys;
+    }
+
+    private static void collectFieldNames(JsonNode node, Set<String> names) {
+        node.fields().forEachRemaining(field -> {
+            names.add(field.getKey());
+            collectFieldNames(field.getValue(), names);
+        });
+        if (node.isArray()) {
+            node.forEach(element -> collectFieldNames(element, names));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package lk.ijse.cmjd.researchtracker.tenant;
+
+import lk.ijse.cmjd.researchtracker.ApiTestSupport;
+import lk.ijse.cmjd.researchtracker.user.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class TenantIsolationTest extends ApiTestSupport {
+
+    @Test
+    void anotherTenantsProjectIsNotFound() throws Exception {
+        Account owner = signUp(newTenant(), UserRole.PI);
+        Account outsider = signUp(newTenant(), UserRole.ADMIN);
+        String projectId = createProject(owner, "Owned project");
+
+        perform(get("/api/projects/" + projectId), outsider, null, 404);
+        perform(put("/api/projects/" + projectId), outsider, Map.of("title", "Taken over"), 404);
+        perform(patch("/api/projects/" + projectId + "/status"), outsider, "COMPLETED", 404);
+        perform(delete("/api/projects/" + projectId), outsider, null, 404);
+        assertFalse(json(perform(get("/api/projects"), outsider, null, 200)).findValuesAsText("id").contains(projectId));
+
+        var project = json(perform(get("/api/projects/" + projectId), owner, null, 200));
+        assertEquals("Owned project", project.get("title").asText());
+        assertEquals("PLANNING", project.get("status").asText());
+    }
+
+    @Test
+    void projectCannotBeHandedToAnotherTenantsUser() throws Exception {
+        String tenantId = newTenant();
+        Account owner = signUp(tenantId, UserRole.PI);
+        Account colleague = signUp(tenantId, UserRole.PI);
+        Account outsider = signUp(newTenant(), UserRole.PI);
+        String projectId = createProject(owner, "Owned project");
+
+        perform(put("/api/projects/" + projectId), owner, Map.of("title", "Owned project",
+                "pi", Map.of("id", outsider.id(), "username", "forged")), 400);
+        perform(put("/api/projects/" + projectId), owner, Map.of("title", "Owned project",
+                "pi", Map.of("id", UUID.randomUUID().toString())), 400);
+        assertEquals(owner.id(), json(perform(get("/api/projects/" + projectId), owner, null, 200)).get("pi").get("id").asText());
+
+        // A user of the same tenant is looked up, not copied from the request
+        var project = json(perform(put("/api/projects/" + projectId), owner, Map.of("title", "Owned project",
+                "pi", Map.of("id", colleague.id(), "username", "forged")), 200));
+        assertEquals(colleague.id(), project.get("pi").get("id").asText());
+        assertEquals(colleague.username(), project.get("pi").get("username").asText());
+        assertEquals(colleague.username(), jdbcTemplate.queryForObject(
+                "select username from users where id = ?", String.class, colleague.id()));
+    }
+
+    @Test
+    void anotherTenantsDocumentsAndMilestonesAreNotFound() throws Exception {
+        Account owner = signUp(newTenant(), UserRole.PI);
+        Account outsider = signUp(newTenant(), UserRole.PI);
+        String projectId = createProject(owner, "Owned project");
+        String documentId = uploadDocument(owner, projectId, "notes.txt", "private notes".getBytes());
+        perform(post("/api/projects/" + projectId + "/milestones"), owner,
+                Map.of("title", "Overdue", "dueDate", LocalDate.now().minusDays(1).toString()), 200);
+
+        perform(get("/api/documents/" + documentId + "/download"), outsider, null, 404);
+        assertEquals(0, json(perform(get("/api/projects/" + projectId + "/documents"), outsider, null, 200)).size());
+        assertEquals(0, json(perform(get("/api/milestones/overdue"), outsider, null, 200)).size());
+
+        perform(get("/api/documents/" + documentId + "/download"), owner, null, 200);
+    }
+
+    @Test
+    void signUpNamingAnInstitutionWithoutAnInviteIsRejected() throws Exception {
+        String tenantId = newTenant();
+
+        perform(post("/api/auth/signup"), null, Map.of("username", "walk-in-" + tenantId, "password", "pw",
+                "fullName", "Walk In", "institution", tenantId), 400);
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from users where tenant_id = ?", Integer.class, tenantId));
+    }
+
+    @Test
+    void inviteIsSingleUseAndDecidesTenantAndRole() throws Exception {
+        String tenantId = newTenant();
+        Account admin = signUp(tenantId, UserRole.ADMIN);
+        String code = json(perform(post("/api/admin/invites"), admin, Map.of("role", "PI"), 200)).get("code").asText();
+
+        var user = json(perform(post("/api/auth/signup"), null, Map.of("username", "invited-" + tenantId,
+                "password", "pw", "fullName", "Invited", "inviteCode", code, "institution", "Somewhere else"), 200)).get("user");
+        perform(post("/api/auth/signup"), null, Map.of("username", "second-" + tenantId, "password", "pw",
+                "fullName", "Second", "inviteCode", code), 403);
+
+        assertEquals(tenantId, user.get("institution").asText());
+        assertEquals("PI", user.get("role").asText());
+    }
+
+    @Test
+    void onlyOperatorsInviteIntoOtherTenantsAndProvisionTenants() throws Exception {
+        Account admin = signUp(newTenant(), UserRole.ADMIN);
+        Account operator = signUp(Tenants.DEFAULT, UserRole.ADMIN);
+        String otherTenant = newTenant();
+
+        perform(post("/api/admin/invites"), admin, Map.of("tenantId", otherTenant, "role", "ADMIN"), 403);
+        perform(post("/api/admin/tenants"), admin, Map.of("name", "Rogue University"), 403);
+
+        perform(post("/api/admin/invites"), operator, Map.of("tenantId", otherTenant, "role", "ADMIN"), 200);
+        String name = "New University " + UUID.randomUUID();
+        String created = json(perform(post("/api/admin/tenants"), operator, Map.of("name", name), 200)).get("id").asText();
+        perform(post("/api/admin/tenants"), operator, Map.of("name", name), 409);
+        assertEquals(Tenants.fromInstitution(name), created);
+    }
+}
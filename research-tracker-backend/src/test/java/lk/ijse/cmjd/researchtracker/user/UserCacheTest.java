@@ -0,0 +1,142 @@
+package lk.ijse.cmjd.researchtracker.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final UserCache cache = new UserCache(repository, 2);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void servesCachedUsersWithoutLoading() {
+        cache.put(user("a", "t1"));
+
+        assertEquals("user-a", cache.get("a").getUsername());
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        givenStored(user("b", "t1"));
+        cache.put(user("a", "t1"));
+        cache.put(user("b", "t1"));
+        cache.get("a");
+
+        cache.put(user("c", "t1"));
+
+        cache.get("a");
+        cache.get("c");
+        verify(repository, never()).findAllById(any());
+        assertEquals("user-b", cache.get("b").getUsername());
+        verify(repository).findAllById(Set.of("b"));
+    }
+
+    @Test
+    void evictedUserIsLoadedAgain() {
+        cache.put(user("a", "t1"));
+        when(repository.findAllById(any())).thenReturn(List.of());
+
+        cache.evict("a");
+
+        assertNull(cache.get("a"));
+        verify(repository).findAllById(Set.of("a"));
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotStored() {
+        // The user is deleted while its row is being read
+        when(repository.findAllById(any())).thenAnswer(invocation -> {
+            cache.evict("a");
+            return List.of(user("a", "t1"));
+        });
+
+        assertEquals("user-a", cache.get("a").getUsername());
+        cache.get("a");
+
+        verify(repository, times(2)).findAllById(Set.of("a"));
+    }
+
+    @Test
+    void entriesOfAnotherTenantAreNotReturned() {
+        cache.put(user("a", "t1"));
+        signIn(user("me", "t2"));
+
+        assertNull(cache.get("a"));
+        verify(repository, never()).findAllById(any());
+
+        signIn(user("me", "t1"));
+        assertEquals("user-a", cache.get("a").getUsername());
+    }
+
+    @Test
+    void putInsideATransactionWaitsForTheCommit() {
+        when(repository.findAllById(any())).thenReturn(List.of());
+
+        List<TransactionSynchronization> synchronizations = new ArrayList<>();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(user("a", "t1"));
+            cache.put(user("b", "t1"));
+            synchronizations.addAll(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(cache.get("a"));
+
+        // What a rollback does: no afterCommit
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertNull(cache.get("a"));
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals("user-a", cache.get("a").getUsername());
+        assertEquals("user-b", cache.get("b").getUsername());
+        verify(repository, times(2)).findAllById(any());
+    }
+
+    private void givenStored(User... users) {
+        when(repository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return List.of(users).stream().filter(user -> ids.contains(user.getId())).toList();
+        });
+    }
+
+    private static void signIn(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static User user(String id, String tenantId) {
+        return User.builder()
+                .id(id)
+                .tenantId(tenantId)
+                .username("user-" + id)
+                .fullName("User " + id)
+                .role(UserRole.MEMBER)
+                .build();
+    }
+}